@@ -0,0 +1,84 @@
+package com.vssfullstack.usuario.benchmark;
+
+import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.TelefoneDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.entity.Endereco;
+import com.vssfullstack.usuario.infrastructure.entity.Telefone;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Dados sintéticos compartilhados pelos benchmarks
+final class DadosBenchmark {
+
+    private DadosBenchmark() {
+    }
+
+    // Monta um UsuarioDTO com a quantidade informada de endereços e telefones
+    static UsuarioDTO usuarioDTO(int enderecos, int telefones) {
+        List<EnderecoDTO> listaEnderecos = new ArrayList<>(enderecos);
+        for (int i = 0; i < enderecos; i++) {
+            listaEnderecos.add(EnderecoDTO.builder()
+                    .id((long) i)
+                    .rua("Rua das Palmeiras " + i)
+                    .numero(String.valueOf(100 + i))
+                    .complemento("Apto " + i)
+                    .cidade("São Paulo")
+                    .estado("SP")
+                    .cep("01310-100")
+                    .build());
+        }
+        List<TelefoneDTO> listaTelefones = new ArrayList<>(telefones);
+        for (int i = 0; i < telefones; i++) {
+            listaTelefones.add(TelefoneDTO.builder()
+                    .id((long) i)
+                    .numero(String.valueOf(900000000 + i))
+                    .ddd("11")
+                    .build());
+        }
+        return UsuarioDTO.builder()
+                .nome("Usuário Benchmark")
+                .email("benchmark@exemplo.com")
+                .enderecos(listaEnderecos)
+                .telefones(listaTelefones)
+                .build();
+    }
+
+    // Monta a entidade Usuario equivalente, como viria do banco
+    static Usuario usuario(int enderecos, int telefones) {
+        List<Endereco> listaEnderecos = new ArrayList<>(enderecos);
+        for (int i = 0; i < enderecos; i++) {
+            listaEnderecos.add(Endereco.builder()
+                    .id((long) i)
+                    .rua("Rua das Palmeiras " + i)
+                    .numero(String.valueOf(100 + i))
+                    .complemento("Apto " + i)
+                    .cidade("São Paulo")
+                    .estado("SP")
+                    .cep("01310-100")
+                    .usuario_id(1L)
+                    .versao(0L)
+                    .build());
+        }
+        List<Telefone> listaTelefones = new ArrayList<>(telefones);
+        for (int i = 0; i < telefones; i++) {
+            listaTelefones.add(Telefone.builder()
+                    .id((long) i)
+                    .numero(String.valueOf(900000000 + i))
+                    .ddd("11")
+                    .usuario_id(1L)
+                    .versao(0L)
+                    .build());
+        }
+        return Usuario.builder()
+                .id(1L)
+                .nome("Usuário Benchmark")
+                .email("benchmark@exemplo.com")
+                .versao(0L)
+                .enderecos(listaEnderecos)
+                .telefones(listaTelefones)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.vssfullstack.usuario.benchmark;
+
+import com.vssfullstack.usuario.infrastructure.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de gerar e verificar tokens JWT, com e sem o cache de tokens verificados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(100_000);
+        token = jwtUtil.generateToken("benchmark@exemplo.com", 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark@exemplo.com", 1L);
+    }
+
+    // Verificação completa da assinatura, sem cache
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtUtil.extractClaims(token);
+    }
+
+    // Verificação pelo caminho do filtro, servida pelo cache após a primeira chamada
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyTokenCached() {
+        return jwtUtil.verifyToken(token);
+    }
+}
@@ -0,0 +1,45 @@
+package com.vssfullstack.usuario.benchmark;
+
+import com.vssfullstack.usuario.business.converter.UsuarioConverter;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Conversões entre entidade e DTO com listas de endereços e telefones de tamanhos variados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioConverterBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int itens;
+
+    private final UsuarioConverter converter = new UsuarioConverter();
+    private UsuarioDTO usuarioDTO;
+    private Usuario usuario;
+
+    @Setup
+    public void setup() {
+        usuarioDTO = DadosBenchmark.usuarioDTO(itens, itens);
+        usuario = DadosBenchmark.usuario(itens, itens);
+    }
+
+    @Benchmark
+    public Usuario paraUsuario() {
+        return converter.paraUsuario(usuarioDTO);
+    }
+
+    @Benchmark
+    public UsuarioDTO paraUsuarioDTO() {
+        return converter.paraUsuarioDTO(usuario);
+    }
+}
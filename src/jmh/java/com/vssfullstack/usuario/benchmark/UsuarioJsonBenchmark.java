@@ -0,0 +1,45 @@
+package com.vssfullstack.usuario.benchmark;
+
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+// Serialização e leitura do UsuarioDTO com Jackson, como nas respostas e no cadastro
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioJsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int itens;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private UsuarioDTO usuarioDTO;
+    private byte[] json;
+
+    @Setup
+    public void setup() {
+        usuarioDTO = DadosBenchmark.usuarioDTO(itens, itens);
+        json = objectMapper.writeValueAsBytes(usuarioDTO);
+    }
+
+    @Benchmark
+    public byte[] serializa() {
+        return objectMapper.writeValueAsBytes(usuarioDTO);
+    }
+
+    @Benchmark
+    public UsuarioDTO desserializa() {
+        return objectMapper.readValue(json, UsuarioDTO.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.vssfullstack.usuario.benchmark;
+
+import com.vssfullstack.usuario.business.converter.UsuarioConverter;
+import com.vssfullstack.usuario.business.converter.UsuarioJsonWriter;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.entity.Endereco;
+import com.vssfullstack.usuario.infrastructure.entity.Telefone;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Compara o caminho atual do GET /usuario (entidades -> DTO -> Jackson) com a escrita direta
+// das linhas no JsonGenerator. Para comparar alocações: ./gradlew jmh -PjmhProfilers=gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UsuarioJsonWriterBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int itens;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final UsuarioConverter converter = new UsuarioConverter();
+    private final UsuarioJsonWriter writer = new UsuarioJsonWriter(objectMapper);
+
+    private Usuario usuario;
+    private CachedRowSet enderecos;
+    private CachedRowSet telefones;
+
+    @Setup
+    public void setup() throws SQLException {
+        usuario = DadosBenchmark.usuario(itens, itens);
+        enderecos = linhasEnderecos(usuario);
+        telefones = linhasTelefones(usuario);
+
+        // A escrita direta precisa gerar exatamente os mesmos bytes
+        if (!Arrays.equals(viaDto(), direto())) {
+            throw new IllegalStateException("A escrita direta difere da serialização do UsuarioDTO.");
+        }
+    }
+
+    @Benchmark
+    public byte[] viaDto() {
+        UsuarioDTO dto = converter.paraUsuarioDTO(usuario, usuario.getEnderecos(), usuario.getTelefones());
+        dto.setSenha(null);
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public byte[] direto() throws SQLException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(1024);
+        writer.escreve(saida, usuario.getNome(), usuario.getEmail(),
+                handler -> percorre(enderecos, handler),
+                handler -> percorre(telefones, handler));
+        return saida.toByteArray();
+    }
+
+    private static void percorre(CachedRowSet linhas, RowCallbackHandler handler) throws SQLException {
+        linhas.beforeFirst();
+        while (linhas.next()) {
+            handler.processRow(linhas);
+        }
+    }
+
+    // Linhas em memória com as mesmas colunas da consulta de endereços
+    private static CachedRowSet linhasEnderecos(Usuario usuario) throws SQLException {
+        String[] colunas = {"id", "rua", "numero", "complemento", "cidade", "estado", "cep"};
+        CachedRowSet linhas = novasLinhas(colunas);
+        for (Endereco e : usuario.getEnderecos()) {
+            linhas.moveToInsertRow();
+            linhas.updateLong(1, e.getId());
+            linhas.updateString(2, e.getRua());
+            linhas.updateString(3, e.getNumero());
+            linhas.updateString(4, e.getComplemento());
+            linhas.updateString(5, e.getCidade());
+            linhas.updateString(6, e.getEstado());
+            linhas.updateString(7, e.getCep());
+            linhas.insertRow();
+        }
+        linhas.moveToCurrentRow();
+        return linhas;
+    }
+
+    // Linhas em memória com as mesmas colunas da consulta de telefones
+    private static CachedRowSet linhasTelefones(Usuario usuario) throws SQLException {
+        CachedRowSet linhas = novasLinhas(new String[]{"id", "numero", "ddd"});
+        for (Telefone t : usuario.getTelefones()) {
+            linhas.moveToInsertRow();
+            linhas.updateLong(1, t.getId());
+            linhas.updateString(2, t.getNumero());
+            linhas.updateString(3, t.getDdd());
+            linhas.insertRow();
+        }
+        linhas.moveToCurrentRow();
+        return linhas;
+    }
+
+    private static CachedRowSet novasLinhas(String[] colunas) throws SQLException {
+        RowSetMetaDataImpl metadados = new RowSetMetaDataImpl();
+        metadados.setColumnCount(colunas.length);
+        for (int i = 0; i < colunas.length; i++) {
+            metadados.setColumnName(i + 1, colunas[i]);
+            metadados.setColumnLabel(i + 1, colunas[i]);
+            metadados.setColumnType(i + 1, i == 0 ? Types.BIGINT : Types.VARCHAR);
+        }
+        CachedRowSet linhas = RowSetProvider.newFactory().createCachedRowSet();
+        linhas.setMetaData(metadados);
+        return linhas;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vssfullstack.usuario.carga;
+
+import com.vssfullstack.usuario.UsuarioApplication;
+import com.vssfullstack.usuario.business.UsuarioService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Latência da busca paginada de usuários (GET /usuario/busca) em uma base com milhões de linhas:
+// cada filtro na primeira página e em páginas profundas (cursor sorteado), com o plano de cada consulta.
+//
+// ./gradlew buscaBenchmark -PcargaArgs="--usuarios=5000000"
+public class BenchmarkBusca {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = TesteCarga.parametros(args);
+        long usuarios = Long.parseLong(parametros.getOrDefault("usuarios", "5000000"));
+        int enderecos = Integer.parseInt(parametros.getOrDefault("enderecos", "2"));
+        int telefones = Integer.parseInt(parametros.getOrDefault("telefones", "2"));
+        int iteracoes = Integer.parseInt(parametros.getOrDefault("iteracoes", "2000"));
+        int limite = Integer.parseInt(parametros.getOrDefault("limite", "50"));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+
+            Map<String, Object> propriedades = new HashMap<>();
+            propriedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            propriedades.put("spring.datasource.username", "postgres");
+            propriedades.put("spring.datasource.password", "");
+            propriedades.put("spring.jpa.show-sql", "false");
+            propriedades.put("spring.main.web-application-type", "none");
+
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(UsuarioApplication.class)
+                    .properties(propriedades)
+                    .run(TesteCarga.parametrosSpring(args))) {
+
+                DataSource dataSource = contexto.getBean(DataSource.class);
+                long inicio = System.nanoTime();
+                new GeradorDados(dataSource).gera(usuarios, enderecos, telefones, "hash");
+                System.out.printf("Massa gerada em %d s%n", Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+
+                // Planos das consultas equivalentes às geradas pelo repositório de busca
+                Medicao.imprimePlano(dataSource, "Prefixo do nome",
+                        "select id, nome, email from usuario where excluido_em is null and nome collate \"C\" like 'Usuario 12%'"
+                                + " order by nome collate \"C\", id limit " + limite);
+                Medicao.imprimePlano(dataSource, "Estado e cidade",
+                        "select id, nome, email from usuario u where id > 0 and exists (select 1 from endereco e"
+                                + " where e.usuario_id = u.id and e.estado = 'SP' and e.cidade = 'São Paulo') order by id limit " + limite);
+                Medicao.imprimePlano(dataSource, "DDD",
+                        "select id, nome, email from usuario u where id > 0 and exists (select 1 from telefone t"
+                                + " where t.usuario_id = u.id and t.ddd = '21') order by id limit " + limite);
+
+                // Prefixos com 4 dígitos selecionam poucas centenas de usuários por prefixo
+                UsuarioService servico = contexto.getBean(UsuarioService.class);
+                Medicao.imprimeCabecalho();
+                Medicao.mede("nome (primeira página)", iteracoes, 9999,
+                        n -> servico.buscaUsuarios("Usuario " + n, null, null, null, null, 0, limite));
+                Medicao.mede("nome (página profunda)", iteracoes, usuarios,
+                        n -> servico.buscaUsuarios("Usuario ", null, null, null, "Usuario " + n, 0, limite));
+                Medicao.mede("estado+cidade (primeira página)", iteracoes, usuarios,
+                        n -> servico.buscaUsuarios(null, "São Paulo", "SP", null, null, 0, limite));
+                Medicao.mede("estado+cidade (página profunda)", iteracoes, usuarios,
+                        n -> servico.buscaUsuarios(null, "São Paulo", "SP", null, null, n, limite));
+                Medicao.mede("ddd (página profunda)", iteracoes, usuarios,
+                        n -> servico.buscaUsuarios(null, null, null, "21", null, n, limite));
+                Medicao.mede("ddd+estado (página profunda)", iteracoes, usuarios,
+                        n -> servico.buscaUsuarios(null, null, "RJ", "21", null, n, limite));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.vssfullstack.usuario.carga;
+
+import com.vssfullstack.usuario.UsuarioApplication;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Latência da busca por email em uma tabela grande: findByEmail e existsByEmail com emails
+// existentes e inexistentes, em caixa mista, usando o índice único, e a mesma consulta com o
+// índice desabilitado no planejador para comparação.
+//
+// ./gradlew emailBenchmark -PcargaArgs="--usuarios=10000000"
+public class BenchmarkEmail {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = TesteCarga.parametros(args);
+        long usuarios = Long.parseLong(parametros.getOrDefault("usuarios", "10000000"));
+        int iteracoes = Integer.parseInt(parametros.getOrDefault("iteracoes", "100000"));
+        int iteracoesSemIndice = Integer.parseInt(parametros.getOrDefault("iteracoes-sem-indice", "20"));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+
+            Map<String, Object> propriedades = new HashMap<>();
+            propriedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            propriedades.put("spring.datasource.username", "postgres");
+            propriedades.put("spring.datasource.password", "");
+            propriedades.put("spring.jpa.show-sql", "false");
+            propriedades.put("spring.main.web-application-type", "none");
+
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(UsuarioApplication.class)
+                    .properties(propriedades)
+                    .run(TesteCarga.parametrosSpring(args))) {
+
+                DataSource dataSource = contexto.getBean(DataSource.class);
+                long inicio = System.nanoTime();
+                new GeradorDados(dataSource).gera(usuarios, 0, 0, "hash");
+                System.out.printf("Massa gerada em %d s%n", Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+
+                Medicao.imprimePlano(dataSource, "Plano da busca por email",
+                        "select id from usuario where email = 'usuario1@carga.local'");
+
+                // Emails como chegam na API: caixa mista, normalizados antes da consulta
+                UsuarioRepository repositorio = contexto.getBean(UsuarioRepository.class);
+                Medicao.imprimeCabecalho();
+                Medicao.mede("findByEmail (existente)", iteracoes, usuarios, n -> repositorio.findByEmail(
+                        Usuario.normalizaEmail(" Usuario" + n + "@Carga.Local ")));
+                Medicao.mede("existsByEmail (existente)", iteracoes, usuarios, n -> repositorio.existsByEmail(
+                        Usuario.normalizaEmail("USUARIO" + n + "@CARGA.LOCAL")));
+                Medicao.mede("existsByEmail (inexistente)", iteracoes, usuarios, n -> repositorio.existsByEmail(
+                        Usuario.normalizaEmail("Ausente" + n + "@Carga.Local")));
+
+                // Mesma consulta forçando a varredura sequencial, como antes do índice
+                try (Connection conexao = dataSource.getConnection()) {
+                    try (Statement st = conexao.createStatement()) {
+                        st.execute("set enable_indexscan = off");
+                        st.execute("set enable_bitmapscan = off");
+                        st.execute("set enable_indexonlyscan = off");
+                    }
+                    try (PreparedStatement ps = conexao.prepareStatement("select id from usuario where email = ?")) {
+                        Medicao.mede("sem índice (seq scan)", iteracoesSemIndice, usuarios, n -> consulta(ps, "usuario" + n + "@carga.local"));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void consulta(PreparedStatement ps, String email) {
+        try {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.vssfullstack.usuario.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Dispara uma mistura de cadastro, login, GET e PUT contra a API e mede a latência
+// de cada operação em histogramas HdrHistogram (laço fechado: cada thread espera a resposta)
+class CenarioCarga {
+
+    enum Operacao { CADASTRO, LOGIN, BUSCA, ATUALIZACAO }
+
+    // Vazão e percentis de todas as operações somadas, em milissegundos
+    record Resumo(double requisicoesPorSegundo, double p50, double p99, long erros) {
+    }
+
+    // Métricas de uma operação
+    private static class Medida {
+        final Histogram latenciaMicros = new ConcurrentHistogram(Duration.ofMinutes(1).toNanos() / 1000, 3);
+        final LongAdder erros = new LongAdder();
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String base;
+    private final long usuarios;
+    private final String senha;
+
+    // Percentual de cada operação na mistura, somando 100
+    private final Map<Operacao, Integer> mistura;
+    private final Map<Operacao, Medida> medidas = new EnumMap<>(Operacao.class);
+
+    // Emails novos começam após os usuários gerados
+    private final AtomicLong proximoCadastro;
+
+    CenarioCarga(int porta, long usuarios, String senha, Map<Operacao, Integer> mistura, long primeiroCadastro) {
+        this.base = "http://localhost:" + porta + "/usuario";
+        this.usuarios = usuarios;
+        this.senha = senha;
+        this.mistura = mistura;
+        this.proximoCadastro = new AtomicLong(primeiroCadastro);
+        for (Operacao operacao : Operacao.values()) {
+            medidas.put(operacao, new Medida());
+        }
+    }
+
+    // Executa o aquecimento, descarta suas medidas e executa a medição
+    Resumo executa(int threads, Duration aquecimento, Duration duracao) throws InterruptedException {
+        roda(threads, aquecimento);
+        medidas.values().forEach(m -> {
+            m.latenciaMicros.reset();
+            m.erros.reset();
+        });
+        roda(threads, duracao);
+        imprime(duracao);
+        return resume(duracao);
+    }
+
+    // Próximo número de email livre para cadastro, usado ao repetir o cenário na mesma massa
+    long proximoCadastro() {
+        return proximoCadastro.get();
+    }
+
+    private void roda(int threads, Duration duracao) throws InterruptedException {
+        long fim = System.nanoTime() + duracao.toNanos();
+        List<Thread> trabalhadores = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread trabalhador = new Thread(() -> trabalha(fim), "carga-" + i);
+            trabalhador.start();
+            trabalhadores.add(trabalhador);
+        }
+        for (Thread trabalhador : trabalhadores) {
+            trabalhador.join();
+        }
+    }
+
+    // Cada thread autentica um usuário e repete operações sorteadas até o fim do período
+    private void trabalha(long fim) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long usuario = 1 + random.nextLong(usuarios);
+        String token = login(usuario);
+
+        while (System.nanoTime() < fim) {
+            Operacao operacao = sorteia(random.nextInt(100));
+            long inicio = System.nanoTime();
+            boolean ok;
+            try {
+                switch (operacao) {
+                    case CADASTRO -> ok = cadastra(proximoCadastro.getAndIncrement());
+                    case LOGIN -> {
+                        usuario = 1 + random.nextLong(usuarios);
+                        String novo = login(usuario);
+                        ok = novo != null;
+                        token = ok ? novo : token;
+                    }
+                    case BUSCA -> ok = busca(token, 1 + random.nextLong(usuarios));
+                    default -> ok = atualiza(token, usuario, random.nextInt(1000));
+                }
+            } catch (Exception e) {
+                ok = false;
+            }
+            Medida medida = medidas.get(operacao);
+            medida.latenciaMicros.recordValue(Math.min((System.nanoTime() - inicio) / 1000,
+                    medida.latenciaMicros.getHighestTrackableValue()));
+            if (!ok) {
+                medida.erros.increment();
+            }
+        }
+    }
+
+    private Operacao sorteia(int sorteio) {
+        int acumulado = 0;
+        for (Map.Entry<Operacao, Integer> entrada : mistura.entrySet()) {
+            acumulado += entrada.getValue();
+            if (sorteio < acumulado) {
+                return entrada.getKey();
+            }
+        }
+        return Operacao.BUSCA;
+    }
+
+    private boolean cadastra(long n) throws Exception {
+        String corpo = "{\"nome\":\"Carga " + n + "\",\"email\":\"" + email(n) + "\",\"senha\":\"" + senha + "\"}";
+        return envia(HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))).statusCode() == 200;
+    }
+
+    private String login(long n) {
+        try {
+            String corpo = "{\"email\":\"" + email(n) + "\",\"senha\":\"" + senha + "\"}";
+            HttpResponse<String> resposta = envia(HttpRequest.newBuilder(URI.create(base + "/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo)));
+            return resposta.statusCode() == 200 ? resposta.body() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean busca(String token, long n) throws Exception {
+        return envia(HttpRequest.newBuilder(URI.create(base + "?email=" + email(n)))
+                .header("Authorization", token)
+                .GET()).statusCode() == 200;
+    }
+
+    private boolean atualiza(String token, long n, int sufixo) throws Exception {
+        String corpo = "{\"nome\":\"Usuario " + n + " " + sufixo + "\"}";
+        return envia(HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .header("Authorization", token)
+                .PUT(HttpRequest.BodyPublishers.ofString(corpo))).statusCode() == 200;
+    }
+
+    private HttpResponse<String> envia(HttpRequest.Builder requisicao) throws Exception {
+        return http.send(requisicao.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String email(long n) {
+        return "usuario" + n + "@carga.local";
+    }
+
+    // Soma os histogramas de todas as operações
+    private Resumo resume(Duration duracao) {
+        Histogram total = new Histogram(Duration.ofMinutes(1).toNanos() / 1000, 3);
+        long erros = 0;
+        for (Medida medida : medidas.values()) {
+            total.add(medida.latenciaMicros);
+            erros += medida.erros.sum();
+        }
+        return new Resumo(total.getTotalCount() / (double) duracao.toSeconds(),
+                total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0, erros);
+    }
+
+    // Imprime vazão e percentis por operação, em milissegundos
+    private void imprime(Duration duracao) {
+        System.out.printf("%n%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operacao", "total", "erros", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        medidas.forEach((operacao, medida) -> {
+            Histogram h = medida.latenciaMicros;
+            System.out.printf("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operacao, h.getTotalCount(), medida.erros.sum(), h.getTotalCount() / (double) duracao.toSeconds(),
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0);
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.vssfullstack.usuario.carga;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Gera usuários, endereços e telefones sintéticos direto no banco com generate_series,
+// em lotes, sem passar pela aplicação
+class GeradorDados {
+
+    // Usuários inseridos por comando
+    private static final int LOTE = 100_000;
+
+    private final DataSource dataSource;
+
+    GeradorDados(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // Insere os usuários 1..quantidade, com emails usuarioN@carga.local e a mesma senha
+    void gera(long quantidade, int enderecosPorUsuario, int telefonesPorUsuario, String hashSenha) throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.setAutoCommit(true);
+
+            for (long inicio = 1; inicio <= quantidade; inicio += LOTE) {
+                long fim = Math.min(inicio + LOTE - 1, quantidade);
+
+                try (PreparedStatement ps = conexao.prepareStatement("""
+                        insert into usuario (id, nome, email, senha, versao, versao_token, versao_token_atualizada_em)
+                        select g, 'Usuario ' || g, 'usuario' || g || '@carga.local', ?, 0, 1, now()
+                        from generate_series(?::bigint, ?::bigint) g
+                        """)) {
+                    ps.setString(1, hashSenha);
+                    ps.setLong(2, inicio);
+                    ps.setLong(3, fim);
+                    ps.executeUpdate();
+                }
+
+                try (PreparedStatement ps = conexao.prepareStatement("""
+                        insert into endereco (id, rua, numero, complemento, cidade, estado, cep, usuario_id, versao)
+                        select (g - 1) * ? + e, 'Rua ' || (g % 5000), (g % 2000)::text, null,
+                               (array['São Paulo','Rio de Janeiro','Belo Horizonte','Curitiba','Salvador'])[1 + g % 5],
+                               (array['SP','RJ','MG','PR','BA'])[1 + g % 5],
+                               lpad((g % 100000000)::text, 8, '0'), g, 0
+                        from generate_series(?::bigint, ?::bigint) g, generate_series(1, ?) e
+                        """)) {
+                    ps.setInt(1, enderecosPorUsuario);
+                    ps.setLong(2, inicio);
+                    ps.setLong(3, fim);
+                    ps.setInt(4, enderecosPorUsuario);
+                    ps.executeUpdate();
+                }
+
+                try (PreparedStatement ps = conexao.prepareStatement("""
+                        insert into telefone (id, numero, ddd, usuario_id, versao)
+                        select (g - 1) * ? + t, '9' || lpad((g % 100000000)::text, 8, '0'),
+                               (array['11','21','31','41','71'])[1 + g % 5], g, 0
+                        from generate_series(?::bigint, ?::bigint) g, generate_series(1, ?) t
+                        """)) {
+                    ps.setInt(1, telefonesPorUsuario);
+                    ps.setLong(2, inicio);
+                    ps.setLong(3, fim);
+                    ps.setInt(4, telefonesPorUsuario);
+                    ps.executeUpdate();
+                }
+
+                System.out.printf("Gerados %d de %d usuários%n", fim, quantidade);
+            }
+
+            // Ajusta as sequências e atualiza as estatísticas usadas pelo planejador
+            try (Statement st = conexao.createStatement()) {
+                for (String tabela : new String[]{"usuario", "endereco", "telefone"}) {
+                    st.execute("select setval(pg_get_serial_sequence('" + tabela + "', 'id'), "
+                            + "(select coalesce(max(id), 1) from " + tabela + "))");
+                }
+                st.execute("analyze");
+            }
+        }
+    }
+}
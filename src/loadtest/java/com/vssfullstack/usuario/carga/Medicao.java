@@ -0,0 +1,54 @@
+package com.vssfullstack.usuario.carga;
+
+import org.HdrHistogram.Histogram;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+// Medição de latência de consultas isoladas, usada pelos benchmarks de banco
+final class Medicao {
+
+    private Medicao() {
+    }
+
+    static void imprimeCabecalho() {
+        System.out.printf("%n%-36s %10s %9s %9s %9s %9s%n", "consulta", "total", "p50", "p99", "p99.9", "max");
+    }
+
+    // Executa a consulta com um número de usuário sorteado a cada iteração e imprime os percentis em milissegundos
+    static void mede(String nome, int iteracoes, long usuarios, LongConsumer consulta) {
+        Histogram latencia = new Histogram(Duration.ofMinutes(1).toNanos() / 1000, 3);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Aquecimento com 10% das iterações
+        for (int i = 0; i < iteracoes / 10; i++) {
+            consulta.accept(1 + random.nextLong(usuarios));
+        }
+        for (int i = 0; i < iteracoes; i++) {
+            long inicio = System.nanoTime();
+            consulta.accept(1 + random.nextLong(usuarios));
+            latencia.recordValue(Math.min((System.nanoTime() - inicio) / 1000, latencia.getHighestTrackableValue()));
+        }
+        System.out.printf("%-36s %10d %9.3f %9.3f %9.3f %9.3f%n", nome, latencia.getTotalCount(),
+                latencia.getValueAtPercentile(50) / 1000.0, latencia.getValueAtPercentile(99) / 1000.0,
+                latencia.getValueAtPercentile(99.9) / 1000.0, latencia.getMaxValue() / 1000.0);
+    }
+
+    // Imprime o plano escolhido pelo PostgreSQL para a consulta
+    static void imprimePlano(DataSource dataSource, String titulo, String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             Statement st = conexao.createStatement();
+             ResultSet rs = st.executeQuery("explain " + sql)) {
+            System.out.println(titulo + ":");
+            while (rs.next()) {
+                System.out.println("  " + rs.getString(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.vssfullstack.usuario.carga;
+
+import com.vssfullstack.usuario.UsuarioApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Teste de carga ponta a ponta: sobe um PostgreSQL embutido, inicia a aplicação contra ele,
+// gera a massa de dados e executa o cenário de carga.
+//
+// ./gradlew loadTest -PcargaArgs="--usuarios=1000000 --threads=64 --duracao=120"
+//
+// Com --comparar-threads=true o cenário roda duas vezes sobre a mesma massa, primeiro com as
+// threads de plataforma do Tomcat e depois com o perfil virtual-threads, e imprime a comparação
+// de vazão e p99 (requer Java 21+: ./gradlew loadTest -PloadTestJava=21 ...)
+public class TesteCarga {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = parametros(args);
+        long usuarios = Long.parseLong(parametros.getOrDefault("usuarios", "100000"));
+        int enderecos = Integer.parseInt(parametros.getOrDefault("enderecos", "2"));
+        int telefones = Integer.parseInt(parametros.getOrDefault("telefones", "2"));
+        int threads = Integer.parseInt(parametros.getOrDefault("threads", "32"));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("aquecimento", "30")));
+        Duration duracao = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("duracao", "60")));
+        boolean compararThreads = Boolean.parseBoolean(parametros.getOrDefault("comparar-threads", "false"));
+        String senha = "senha-carga";
+
+        // Sem Java 21 o Spring ignora spring.threads.virtual.enabled e as duas execuções seriam iguais
+        if (compararThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("--comparar-threads requer Java 21+ (use -PloadTestJava=21).");
+        }
+
+        // Mistura padrão: 5% cadastro, 10% login, 70% GET e 15% PUT
+        Map<CenarioCarga.Operacao, Integer> mistura = new LinkedHashMap<>();
+        mistura.put(CenarioCarga.Operacao.CADASTRO, Integer.parseInt(parametros.getOrDefault("cadastro", "5")));
+        mistura.put(CenarioCarga.Operacao.LOGIN, Integer.parseInt(parametros.getOrDefault("login", "10")));
+        mistura.put(CenarioCarga.Operacao.BUSCA, Integer.parseInt(parametros.getOrDefault("busca", "70")));
+        mistura.put(CenarioCarga.Operacao.ATUALIZACAO, Integer.parseInt(parametros.getOrDefault("atualizacao", "15")));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+
+            // Propriedades comuns: porta aleatória apontando para o banco embutido
+            Map<String, Object> propriedades = new HashMap<>();
+            propriedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            propriedades.put("spring.datasource.username", "postgres");
+            propriedades.put("spring.datasource.password", "");
+            propriedades.put("spring.jpa.show-sql", "false");
+            propriedades.put("server.port", "0");
+
+            long primeiroCadastro = usuarios + 1;
+            CenarioCarga.Resumo plataforma;
+            try (ConfigurableApplicationContext contexto = inicia(propriedades, args)) {
+
+                // Gera a massa de dados com uma única senha conhecida
+                long inicio = System.nanoTime();
+                new GeradorDados(contexto.getBean(DataSource.class))
+                        .gera(usuarios, enderecos, telefones, new BCryptPasswordEncoder().encode(senha));
+                System.out.printf("Massa gerada em %d s%n", Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+
+                // Executa o cenário
+                CenarioCarga cenario = new CenarioCarga(porta(contexto), usuarios, senha, mistura, primeiroCadastro);
+                plataforma = cenario.executa(threads, aquecimento, duracao);
+                primeiroCadastro = cenario.proximoCadastro();
+            }
+            if (!compararThreads) {
+                return;
+            }
+
+            // Repete o cenário na mesma massa com as requisições atendidas por virtual threads
+            propriedades.put("spring.profiles.active", "virtual-threads");
+            CenarioCarga.Resumo virtuais;
+            try (ConfigurableApplicationContext contexto = inicia(propriedades, args)) {
+                virtuais = new CenarioCarga(porta(contexto), usuarios, senha, mistura, primeiroCadastro)
+                        .executa(threads, aquecimento, duracao);
+            }
+            imprimeComparacao(threads, plataforma, virtuais);
+        }
+    }
+
+    // Inicia a aplicação com as propriedades informadas e as repassadas na linha de comando
+    private static ConfigurableApplicationContext inicia(Map<String, Object> propriedades, String[] args) {
+        return new SpringApplicationBuilder(UsuarioApplication.class)
+                .properties(propriedades)
+                .run(parametrosSpring(args));
+    }
+
+    private static int porta(ConfigurableApplicationContext contexto) {
+        return contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    // Imprime vazão e p99 das duas execuções lado a lado
+    private static void imprimeComparacao(int threads, CenarioCarga.Resumo plataforma, CenarioCarga.Resumo virtuais) {
+        System.out.printf("%nComparação com %d clientes simultâneos%n", threads);
+        System.out.printf("%-12s %10s %9s %9s %8s%n", "threads", "req/s", "p50", "p99", "erros");
+        System.out.printf("%-12s %10.1f %9.2f %9.2f %8d%n", "plataforma",
+                plataforma.requisicoesPorSegundo(), plataforma.p50(), plataforma.p99(), plataforma.erros());
+        System.out.printf("%-12s %10.1f %9.2f %9.2f %8d%n", "virtuais",
+                virtuais.requisicoesPorSegundo(), virtuais.p50(), virtuais.p99(), virtuais.erros());
+    }
+
+    // Lê os argumentos --chave=valor
+    static Map<String, String> parametros(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                parametros.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return parametros;
+    }
+
+    // Repassa à aplicação apenas as propriedades do Spring (--spring.*, --security.* etc.)
+    static String[] parametrosSpring(String[] args) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith("--") && arg.substring(2).contains("."))
+                .toArray(String[]::new);
+    }
+}
@@ -2,8 +2,10 @@ package com.vssfullstack.usuario;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UsuarioApplication {
 
 	public static void main(String[] args) {
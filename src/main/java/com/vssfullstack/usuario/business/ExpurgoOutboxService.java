@@ -0,0 +1,53 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Remove, em lotes e em segundo plano, os eventos da outbox mais antigos que a retenção do feed
+@Service
+public class ExpurgoOutboxService {
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Por quanto tempo os eventos ficam disponíveis no feed
+    private final Duration retencao;
+
+    // Quantidade de eventos removidos por transação
+    private final int tamanhoLote;
+
+    // Limite de lotes por execução, para não ocupar o banco por muito tempo
+    private final int maxLotesPorExecucao;
+
+    public ExpurgoOutboxService(UsuarioJdbcRepository usuarioJdbcRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${outbox.retencao:7d}") Duration retencao,
+                                @Value("${outbox.expurgo.tamanho-lote:5000}") int tamanhoLote,
+                                @Value("${outbox.expurgo.max-lotes:20}") int maxLotesPorExecucao) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retencao = retencao;
+        this.tamanhoLote = tamanhoLote;
+        this.maxLotesPorExecucao = maxLotesPorExecucao;
+    }
+
+    // Executa o expurgo periodicamente, um lote curto por transação
+    @Scheduled(fixedDelayString = "${outbox.expurgo.interval:1m}")
+    public void expurga() {
+        Instant limite = Instant.now().minus(retencao);
+        for (int lote = 0; lote < maxLotesPorExecucao; lote++) {
+            Integer removidos = transactionTemplate.execute(
+                    status -> usuarioJdbcRepository.excluiEventosOutboxAntesDe(limite, tamanhoLote));
+            if (removidos == null || removidos < tamanhoLote) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.infrastructure.repository.EnderecoRepository;
+import com.vssfullstack.usuario.infrastructure.repository.TelefoneRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Remove fisicamente, em lotes e em segundo plano, os usuários marcados como excluídos.
+// Só existe com a exclusão lógica ativa; na exclusão física não há o que expurgar
+@Service
+@ConditionalOnProperty(name = "exclusao.logica", havingValue = "true")
+public class ExpurgoUsuarioService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final EnderecoRepository enderecoRepository;
+    private final TelefoneRepository telefoneRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Quantidade de usuários removidos por transação
+    private final int tamanhoLote;
+
+    // Limite de lotes por execução, para não ocupar o banco por muito tempo
+    private final int maxLotesPorExecucao;
+
+    public ExpurgoUsuarioService(UsuarioRepository usuarioRepository,
+                                 EnderecoRepository enderecoRepository,
+                                 TelefoneRepository telefoneRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${exclusao.expurgo.tamanho-lote:500}") int tamanhoLote,
+                                 @Value("${exclusao.expurgo.max-lotes:20}") int maxLotesPorExecucao) {
+        this.usuarioRepository = usuarioRepository;
+        this.enderecoRepository = enderecoRepository;
+        this.telefoneRepository = telefoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.maxLotesPorExecucao = maxLotesPorExecucao;
+    }
+
+    // Executa o expurgo periodicamente, um lote curto por transação
+    @Scheduled(fixedDelayString = "${exclusao.expurgo.interval:1m}")
+    public void expurga() {
+        for (int lote = 0; lote < maxLotesPorExecucao; lote++) {
+            Integer removidos = transactionTemplate.execute(status -> expurgaLote());
+            if (removidos == null || removidos < tamanhoLote) {
+                break;
+            }
+        }
+    }
+
+    // Remove um lote de usuários excluídos com um comando por tabela
+    private int expurgaLote() {
+        List<Long> ids = usuarioRepository.findIdsExcluidos(tamanhoLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        enderecoRepository.deleteByUsuarioIds(ids);
+        telefoneRepository.deleteByUsuarioIds(ids);
+        usuarioRepository.purgaPorIds(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.vssfullstack.usuario.business;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.TelefoneDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.cache.CargaCache;
+import com.vssfullstack.usuario.infrastructure.datasource.AlteracoesRecentes;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+// Cache de UsuarioDTO montados, por email, limitado por memória estimada e tempo de vida
+@Component
+public class UsuarioCache {
+
+    private final AsyncCache<String, UsuarioDTO> cache;
+    private final AlteracoesRecentes alteracoesRecentes;
+
+    public UsuarioCache(AlteracoesRecentes alteracoesRecentes,
+                        @Value("${cache.usuario.max-bytes:67108864}") long maxBytes,
+                        @Value("${cache.usuario.ttl:10m}") Duration ttl) {
+        this.alteracoesRecentes = alteracoesRecentes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String email, UsuarioDTO dto) -> estimaBytes(email, dto))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Retorna o DTO do cache ou o monta com o carregador informado, fora do lock do cache; a senha nunca é guardada.
+    // A carga vai para a réplica, exceto logo após uma alteração do usuário
+    public UsuarioDTO busca(String email, Function<String, UsuarioDTO> carregador) {
+        return CargaCache.busca(cache, Usuario.normalizaEmail(email), e -> {
+            UsuarioDTO dto = alteracoesRecentes.carrega(e, () -> carregador.apply(e));
+            dto.setSenha(null);
+            return dto;
+        });
+    }
+
+    // Remove o usuário do cache após qualquer alteração nos seus dados
+    public void invalida(String email) {
+        if (email != null) {
+            alteracoesRecentes.marca(email);
+            cache.synchronous().invalidate(Usuario.normalizaEmail(email));
+        }
+    }
+
+    // Contadores de acertos, falhas e remoções
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    // Memória estimada ocupada pelas entradas, em bytes
+    public long getMemoriaBytes() {
+        return cache.synchronous().policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    // Estimativa grosseira: 2 bytes por caractere mais um custo fixo por objeto
+    private static int estimaBytes(String email, UsuarioDTO dto) {
+        long bytes = 64 + tamanho(email) + tamanho(dto.getNome()) + tamanho(dto.getEmail());
+        List<EnderecoDTO> enderecos = dto.getEnderecos();
+        if (enderecos != null) {
+            for (EnderecoDTO e : enderecos) {
+                bytes += 64 + tamanho(e.getRua()) + tamanho(e.getNumero()) + tamanho(e.getComplemento())
+                        + tamanho(e.getCidade()) + tamanho(e.getEstado()) + tamanho(e.getCep());
+            }
+        }
+        List<TelefoneDTO> telefones = dto.getTelefones();
+        if (telefones != null) {
+            for (TelefoneDTO t : telefones) {
+                bytes += 48 + tamanho(t.getNumero()) + tamanho(t.getDdd());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long tamanho(String valor) {
+        return valor != null ? 40 + 2L * valor.length() : 0;
+    }
+}
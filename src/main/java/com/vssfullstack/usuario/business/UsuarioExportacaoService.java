@@ -0,0 +1,92 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.business.converter.UsuarioConverter;
+import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.TelefoneDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioExportacaoDTO;
+import com.vssfullstack.usuario.infrastructure.repository.EnderecoRepository;
+import com.vssfullstack.usuario.infrastructure.repository.TelefoneRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioResumoProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Exportação de todos os usuários em NDJSON, percorrendo a tabela por id (keyset)
+// com memória constante independente do tamanho da tabela
+@Service
+public class UsuarioExportacaoService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final EnderecoRepository enderecoRepository;
+    private final TelefoneRepository telefoneRepository;
+    private final UsuarioConverter usuarioConverter;
+    private final ObjectMapper objectMapper;
+
+    // Quantidade de usuários lidos por página
+    private final int tamanhoPagina;
+
+    public UsuarioExportacaoService(UsuarioRepository usuarioRepository,
+                                    EnderecoRepository enderecoRepository,
+                                    TelefoneRepository telefoneRepository,
+                                    UsuarioConverter usuarioConverter,
+                                    ObjectMapper objectMapper,
+                                    @Value("${exportacao.tamanho-pagina:500}") int tamanhoPagina) {
+        this.usuarioRepository = usuarioRepository;
+        this.enderecoRepository = enderecoRepository;
+        this.telefoneRepository = telefoneRepository;
+        this.usuarioConverter = usuarioConverter;
+        this.objectMapper = objectMapper;
+        this.tamanhoPagina = tamanhoPagina;
+    }
+
+    // Escreve uma linha JSON por usuário a partir do id seguinte ao cursor informado
+    public void exporta(long cursor, OutputStream saida) throws IOException {
+
+        long ultimoId = cursor;
+        while (true) {
+
+            // Busca a próxima página de usuários após o último id exportado
+            List<UsuarioResumoProjection> pagina = usuarioRepository.findPaginaAposId(ultimoId, Limit.of(tamanhoPagina));
+            if (pagina.isEmpty()) {
+                break;
+            }
+
+            // Busca de uma só vez os endereços e telefones de todos os usuários da página
+            List<Long> ids = pagina.stream().map(UsuarioResumoProjection::getId).toList();
+            Map<Long, List<EnderecoDTO>> enderecos = new HashMap<>();
+            enderecoRepository.findByUsuarioIds(ids).forEach(e -> enderecos
+                    .computeIfAbsent(e.getUsuario_id(), id -> new ArrayList<>())
+                    .add(usuarioConverter.paraEnderecoDTO(e)));
+            Map<Long, List<TelefoneDTO>> telefones = new HashMap<>();
+            telefoneRepository.findByUsuarioIds(ids).forEach(t -> telefones
+                    .computeIfAbsent(t.getUsuario_id(), id -> new ArrayList<>())
+                    .add(usuarioConverter.paraTelefoneDTO(t)));
+
+            // Escreve cada usuário como uma linha JSON
+            for (UsuarioResumoProjection usuario : pagina) {
+                UsuarioExportacaoDTO dto = UsuarioExportacaoDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .enderecos(enderecos.getOrDefault(usuario.getId(), List.of()))
+                        .telefones(telefones.getOrDefault(usuario.getId(), List.of()))
+                        .build();
+                saida.write(objectMapper.writeValueAsBytes(dto));
+                saida.write('\n');
+            }
+
+            // Envia a página ao cliente e avança o cursor
+            saida.flush();
+            ultimoId = pagina.get(pagina.size() - 1).getId();
+        }
+    }
+}
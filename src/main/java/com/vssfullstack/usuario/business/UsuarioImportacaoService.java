@@ -0,0 +1,368 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.business.converter.UsuarioConverter;
+import com.vssfullstack.usuario.business.dto.ErroImportacaoDTO;
+import com.vssfullstack.usuario.business.dto.ImportacaoResultadoDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.cache.EmailBloomFilter;
+import com.vssfullstack.usuario.infrastructure.datasource.AlteracoesRecentes;
+import com.vssfullstack.usuario.infrastructure.entity.Endereco;
+import com.vssfullstack.usuario.infrastructure.entity.Telefone;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import com.vssfullstack.usuario.infrastructure.eventos.EventoAlteracao;
+import com.vssfullstack.usuario.infrastructure.eventos.LogEventosAlteracao;
+import com.vssfullstack.usuario.infrastructure.exceptions.BusinessException;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import com.vssfullstack.usuario.infrastructure.security.TokenVersionService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+// Importação em massa de usuários a partir de NDJSON ou CSV, processada em lotes
+// sem carregar o corpo inteiro da requisição em memória
+@Service
+public class UsuarioImportacaoService implements DisposableBean {
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final UsuarioService usuarioService;
+    private final UsuarioConverter usuarioConverter;
+    private final TokenVersionService tokenVersionService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final AlteracoesRecentes alteracoesRecentes;
+    private final LogEventosAlteracao logEventosAlteracao;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Quantidade de linhas gravadas por transação
+    private final int tamanhoLote;
+
+    // Limite de erros detalhados devolvidos na resposta
+    private final int maxErrosReportados;
+
+    // Pool próprio de hash para a importação não disputar a fila do login
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ExecutorService hashExecutor;
+
+    public UsuarioImportacaoService(UsuarioRepository usuarioRepository,
+                                    UsuarioJdbcRepository usuarioJdbcRepository,
+                                    UsuarioService usuarioService,
+                                    UsuarioConverter usuarioConverter,
+                                    TokenVersionService tokenVersionService,
+                                    EmailBloomFilter emailBloomFilter,
+                                    AlteracoesRecentes alteracoesRecentes,
+                                    LogEventosAlteracao logEventosAlteracao,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${importacao.tamanho-lote:1000}") int tamanhoLote,
+                                    @Value("${importacao.max-erros-reportados:1000}") int maxErrosReportados,
+                                    @Value("${importacao.hash-threads:2}") int hashThreads) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.usuarioService = usuarioService;
+        this.usuarioConverter = usuarioConverter;
+        this.tokenVersionService = tokenVersionService;
+        this.emailBloomFilter = emailBloomFilter;
+        this.alteracoesRecentes = alteracoesRecentes;
+        this.logEventosAlteracao = logEventosAlteracao;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.maxErrosReportados = maxErrosReportados;
+        this.hashExecutor = Executors.newFixedThreadPool(hashThreads);
+    }
+
+    // Linha já convertida em DTO, com o número da linha para o relatório de erros
+    private record Linha(long numero, UsuarioDTO usuario) {
+    }
+
+    // Usuário pronto para gravação, com os filhos e o evento de criação
+    private record Registro(Linha linha, Usuario usuario, List<Endereco> enderecos, List<Telefone> telefones,
+                            EventoAlteracao evento) {
+    }
+
+    // Acumula os contadores da importação
+    private static class Progresso {
+        long linhasLidas;
+        long importados;
+        long erros;
+        final List<ErroImportacaoDTO> detalhes = new ArrayList<>();
+    }
+
+    // Lê o corpo linha a linha e grava os usuários em lotes
+    public ImportacaoResultadoDTO importa(InputStream corpo, String contentType) throws IOException {
+
+        long inicio = System.nanoTime();
+        boolean csv = contentType != null && contentType.startsWith("text/csv");
+        Progresso progresso = new Progresso();
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            String texto;
+            long numero = 0;
+            while ((texto = reader.readLine()) != null) {
+                numero++;
+
+                // Ignora linhas vazias e o cabeçalho do CSV
+                if (texto.isBlank() || (csv && numero == 1 && texto.toLowerCase(Locale.ROOT).startsWith("nome,"))) {
+                    continue;
+                }
+                progresso.linhasLidas++;
+
+                // Converte a linha em DTO, registrando erro se estiver mal formada
+                try {
+                    lote.add(new Linha(numero, csv ? paraUsuarioDTO(texto) : objectMapper.readValue(texto, UsuarioDTO.class)));
+                } catch (RuntimeException e) {
+                    registraErro(progresso, numero, null, "Linha inválida: " + e.getMessage());
+                }
+
+                // Grava o lote quando atingir o tamanho configurado
+                if (lote.size() >= tamanhoLote) {
+                    processaLote(lote, progresso);
+                    lote.clear();
+                }
+            }
+        }
+
+        // Grava o restante
+        if (!lote.isEmpty()) {
+            processaLote(lote, progresso);
+        }
+
+        long duracaoMs = Math.max((System.nanoTime() - inicio) / 1_000_000, 1);
+        return ImportacaoResultadoDTO.builder()
+                .linhasLidas(progresso.linhasLidas)
+                .usuariosImportados(progresso.importados)
+                .erros(progresso.erros)
+                .duracaoMs(duracaoMs)
+                .usuariosPorSegundo(progresso.importados * 1000.0 / duracaoMs)
+                .detalhesErros(progresso.detalhes)
+                .build();
+    }
+
+    // Valida, verifica duplicidade, gera os hashes em paralelo e grava o lote em uma transação
+    private void processaLote(List<Linha> lote, Progresso progresso) {
+
+        // Valida os dados e descarta emails repetidos dentro do próprio lote
+        List<Linha> validas = new ArrayList<>(lote.size());
+        Set<String> emails = new HashSet<>();
+        for (Linha linha : lote) {
+            try {
+                usuarioService.validaEmail(linha.usuario().getEmail());
+                linha.usuario().setEmail(Usuario.normalizaEmail(linha.usuario().getEmail()));
+                usuarioService.validaSenha(linha.usuario().getSenha());
+                if (!emails.add(linha.usuario().getEmail())) {
+                    throw new BusinessException("Email repetido na importação.");
+                }
+                validas.add(linha);
+            } catch (BusinessException e) {
+                registraErro(progresso, linha.numero(), linha.usuario().getEmail(), e.getMessage());
+            }
+        }
+
+        // Verifica em uma única consulta quais emails já estão cadastrados
+        Set<String> existentes = emails.isEmpty() ? Set.of() : new HashSet<>(usuarioRepository.findEmailsExistentes(emails));
+        List<Linha> novas = new ArrayList<>(validas.size());
+        for (Linha linha : validas) {
+            if (existentes.contains(linha.usuario().getEmail())) {
+                registraErro(progresso, linha.numero(), linha.usuario().getEmail(), "Email já cadastrado.");
+            } else {
+                novas.add(linha);
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        // Gera os hashes das senhas em paralelo
+        List<Future<String>> hashes = new ArrayList<>(novas.size());
+        for (Linha linha : novas) {
+            String senha = linha.usuario().getSenha();
+            hashes.add(hashExecutor.submit(() -> passwordEncoder.encode(senha)));
+        }
+
+        // Monta as entidades com ids reservados em bloco
+        List<Long> ids = usuarioJdbcRepository.reservaIds("usuario", novas.size());
+        List<Registro> registros = new ArrayList<>(novas.size());
+        List<Endereco> enderecos = new ArrayList<>();
+        List<Telefone> telefones = new ArrayList<>();
+        for (int i = 0; i < novas.size(); i++) {
+            UsuarioDTO dto = novas.get(i).usuario();
+            dto.setSenha(aguardaHash(hashes.get(i)));
+
+            Usuario usuario = usuarioConverter.paraUsuario(dto);
+            usuario.setId(ids.get(i));
+            usuario.incrementaVersaoToken();
+
+            // Associa os filhos ao id reservado do usuário
+            List<Endereco> enderecosUsuario = usuario.getEnderecos() != null ? usuario.getEnderecos() : List.of();
+            List<Telefone> telefonesUsuario = usuario.getTelefones() != null ? usuario.getTelefones() : List.of();
+            enderecosUsuario.forEach(e -> e.setUsuario_id(usuario.getId()));
+            telefonesUsuario.forEach(t -> t.setUsuario_id(usuario.getId()));
+            enderecos.addAll(enderecosUsuario);
+            telefones.addAll(telefonesUsuario);
+
+            registros.add(new Registro(novas.get(i), usuario, enderecosUsuario, telefonesUsuario,
+                    EventoAlteracao.de(EventoAlteracao.Entidade.USUARIO, EventoAlteracao.Operacao.CRIACAO,
+                            usuario.getId(), usuario.getId(), usuario.getEmail())));
+        }
+
+        // Reserva os ids dos filhos
+        atribuiIds(enderecos, usuarioJdbcRepository.reservaIds("endereco", enderecos.size()), Endereco::setId);
+        atribuiIds(telefones, usuarioJdbcRepository.reservaIds("telefone", telefones.size()), Telefone::setId);
+
+        // Grava usuários, endereços, telefones e os eventos da outbox em batch na mesma transação.
+        // Se o lote falhar (por exemplo, um email cadastrado por outra requisição depois da verificação),
+        // grava linha a linha para que apenas as linhas com problema sejam rejeitadas
+        List<Registro> gravados;
+        try {
+            grava(registros, enderecos, telefones);
+            gravados = registros;
+        } catch (RuntimeException e) {
+            gravados = new ArrayList<>(registros.size());
+            for (Registro registro : registros) {
+                try {
+                    grava(List.of(registro), registro.enderecos(), registro.telefones());
+                    gravados.add(registro);
+                } catch (RuntimeException erro) {
+                    registraErro(progresso, registro.linha().numero(), registro.usuario().getEmail(), mensagemFalha(erro));
+                }
+            }
+        }
+
+        // Marca os novos usuários como recentes, atualiza o filtro de emails e o mapa de versões de token
+        // e publica a criação
+        gravados.forEach(r -> {
+            alteracoesRecentes.marca(r.usuario().getEmail());
+            emailBloomFilter.adiciona(r.usuario().getEmail());
+            tokenVersionService.atualizaVersao(r.usuario().getEmail(), r.usuario().getVersaoToken());
+            logEventosAlteracao.publica(r.evento());
+        });
+        progresso.importados += gravados.size();
+    }
+
+    // Grava os usuários, os filhos e os eventos da outbox em uma transação
+    private void grava(List<Registro> registros, List<Endereco> enderecos, List<Telefone> telefones) {
+        transactionTemplate.executeWithoutResult(status -> {
+            usuarioJdbcRepository.insereUsuarios(registros.stream().map(Registro::usuario).toList());
+            usuarioJdbcRepository.insereEnderecos(enderecos);
+            usuarioJdbcRepository.insereTelefones(telefones);
+            usuarioJdbcRepository.insereEventosOutbox(registros.stream().map(Registro::evento).toList());
+        });
+    }
+
+    // Mensagem de erro de uma linha que falhou na gravação individual
+    private static String mensagemFalha(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            String mensagem = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (mensagem != null && mensagem.contains(Usuario.UK_EMAIL)) {
+                return "Email já cadastrado.";
+            }
+        }
+        return "Falha ao gravar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+
+    // Atribui a cada item o id reservado na mesma posição
+    private static <T> void atribuiIds(List<T> itens, List<Long> ids, BiConsumer<T, Long> setter) {
+        for (int i = 0; i < itens.size(); i++) {
+            setter.accept(itens.get(i), ids.get(i));
+        }
+    }
+
+    // Converte uma linha CSV no formato nome,email,senha. Campos com vírgula ou aspas devem vir entre
+    // aspas duplas, com as aspas internas duplicadas; linhas com outra quantidade de campos são rejeitadas
+    // para que uma senha com vírgula nunca seja importada truncada
+    private UsuarioDTO paraUsuarioDTO(String linha) {
+        List<String> campos = camposCsv(linha);
+        if (campos.size() != 3) {
+            throw new BusinessException("Esperado nome,email,senha (campos com vírgula devem estar entre aspas).");
+        }
+        return UsuarioDTO.builder()
+                .nome(campos.get(0).trim())
+                .email(campos.get(1).trim())
+                .senha(campos.get(2).trim())
+                .build();
+    }
+
+    // Separa os campos de uma linha CSV (RFC 4180, sem quebras de linha dentro dos campos)
+    private static List<String> camposCsv(String linha) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"' && campo.toString().isBlank()) {
+                campo.setLength(0);
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new BusinessException("Aspas não fechadas.");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Aguarda o resultado do hash da senha
+    private String aguardaHash(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Registra um erro, guardando o detalhe apenas até o limite configurado
+    private void registraErro(Progresso progresso, long linha, String email, String mensagem) {
+        progresso.erros++;
+        if (progresso.detalhes.size() < maxErrosReportados) {
+            progresso.detalhes.add(new ErroImportacaoDTO(linha, email, mensagem));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        hashExecutor.shutdown();
+    }
+}
@@ -1,22 +1,52 @@
 package com.vssfullstack.usuario.business;
 
 import com.vssfullstack.usuario.business.converter.UsuarioConverter;
+import com.vssfullstack.usuario.business.converter.UsuarioJsonWriter;
+import com.vssfullstack.usuario.business.dto.AlteracaoDTO;
 import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.PaginaAlteracaoDTO;
+import com.vssfullstack.usuario.business.dto.PaginaUsuarioDTO;
 import com.vssfullstack.usuario.business.dto.TelefoneDTO;
 import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioJsonDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioResumoDTO;
+import com.vssfullstack.usuario.infrastructure.cache.EmailBloomFilter;
+import com.vssfullstack.usuario.infrastructure.cep.CepIndex;
+import com.vssfullstack.usuario.infrastructure.datasource.AlteracoesRecentes;
 import com.vssfullstack.usuario.infrastructure.entity.Endereco;
+import com.vssfullstack.usuario.infrastructure.eventos.EventoAlteracao;
+import com.vssfullstack.usuario.infrastructure.eventos.LogEventosAlteracao;
 import com.vssfullstack.usuario.infrastructure.entity.Telefone;
 import com.vssfullstack.usuario.infrastructure.entity.Usuario;
 import com.vssfullstack.usuario.infrastructure.exceptions.BusinessException;
 import com.vssfullstack.usuario.infrastructure.exceptions.ConflictException;
+import com.vssfullstack.usuario.infrastructure.exceptions.PreconditionFailedException;
 import com.vssfullstack.usuario.infrastructure.exceptions.ResourceNotFoundException;
 import com.vssfullstack.usuario.infrastructure.repository.EnderecoRepository;
 import com.vssfullstack.usuario.infrastructure.repository.TelefoneRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioBuscaRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
 import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
 import com.vssfullstack.usuario.infrastructure.security.JwtUtil;
+import com.vssfullstack.usuario.infrastructure.security.TokenVersionService;
+import com.vssfullstack.usuario.infrastructure.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -25,11 +55,44 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final EnderecoRepository enderecoRepository;
     private final TelefoneRepository telefoneRepository;
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final UsuarioBuscaRepository usuarioBuscaRepository;
     private final UsuarioConverter usuarioConverter;
+    private final UsuarioJsonWriter usuarioJsonWriter;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-
-    // Salva um novo usuário no sistema
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final UsuarioCache usuarioCache;
+    private final AlteracoesRecentes alteracoesRecentes;
+    private final CepIndex cepIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final LogEventosAlteracao logEventosAlteracao;
+
+    // Quando ativo, a exclusão apenas marca o usuário e o expurgo físico é feito em segundo plano
+    @Value("${exclusao.logica:false}")
+    private boolean exclusaoLogica;
+
+    // Quantidade máxima de itens aceitos nos cadastros em lote
+    @Value("${lote.max-itens:100}")
+    private int tamanhoMaximoLote;
+
+    // Quantidade máxima de usuários por página na busca
+    @Value("${busca.max-limite:100}")
+    private int limiteMaximoBusca;
+
+    // Quantidade máxima de alterações por página no feed
+    @Value("${outbox.feed.max-limite:1000}")
+    private int limiteMaximoFeed;
+
+    // Idade mínima de um evento para aparecer no feed, cobrindo transações que
+    // gravaram ids menores mas ainda não fizeram commit
+    @Value("${outbox.feed.atraso-visibilidade:2s}")
+    private Duration atrasoVisibilidadeFeed;
+
+    // Salva um novo usuário no sistema. Não é transacional: o hash da senha é feito antes
+    // e só o insert e o evento da outbox rodam na transação, sem reter a conexão durante o BCrypt
     public UsuarioDTO salvarUsuario(UsuarioDTO usuarioDTO) {
 
         // Verifica se o DTO é nulo
@@ -43,8 +106,8 @@ public class UsuarioService {
         // Valida regras básicas da senha
         validaSenha(usuarioDTO.getSenha());
 
-        // Verifica se o email já está em uso
-        verificaEmailDisponivel(usuarioDTO.getEmail());
+        // Normaliza o email para a comparação sem diferenciar maiúsculas e minúsculas
+        usuarioDTO.setEmail(Usuario.normalizaEmail(usuarioDTO.getEmail()));
 
         // Criptografa a senha antes de salvar
         usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
@@ -52,23 +115,41 @@ public class UsuarioService {
         // Converte o DTO em entidade Usuario
         Usuario usuario = usuarioConverter.paraUsuario(usuarioDTO);
 
-        // Salva no banco e converte a entidade salva em DTO
-        return usuarioConverter.paraUsuarioDTO(
-                usuarioRepository.save(usuario)
-        );
+        // Inicia a versão do token, substituindo uma possível revogação de um cadastro anterior com o mesmo email
+        usuario.incrementaVersaoToken();
+
+        // Salva no banco em um único insert, o índice único garante que o email não está em uso,
+        // e grava o evento de criação na mesma transação
+        Usuario usuarioSalvo = transactionTemplate.execute(status -> {
+            Usuario salvo = salvaComEmailUnico(usuario);
+            registraAlteracao(EventoAlteracao.Entidade.USUARIO, EventoAlteracao.Operacao.CRIACAO,
+                    salvo.getId(), salvo.getId(), salvo.getEmail());
+            return salvo;
+        });
+        alteracoesRecentes.marca(usuarioSalvo.getEmail());
+        emailBloomFilter.adiciona(usuarioSalvo.getEmail());
+        tokenVersionService.atualizaVersao(usuarioSalvo.getEmail(), usuarioSalvo.getVersaoToken());
+
+        // Converte a entidade salva em DTO
+        return usuarioConverter.paraUsuarioDTO(usuarioSalvo);
     }
 
-    // Verifica se o email já está cadastrado
-    private void verificaEmailDisponivel(String email) {
-
-        // Verifica no banco se já existe usuário com este email
-        if (usuarioRepository.existsByEmail(email)) {
-            throw new ConflictException("Email já cadastrado.");
+    // Salva o usuário convertendo a violação do índice único de email em ConflictException
+    private Usuario salvaComEmailUnico(Usuario usuario) {
+        try {
+            return usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException e) {
+            // Verifica se a violação foi no índice de email
+            String mensagem = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (mensagem != null && mensagem.contains(Usuario.UK_EMAIL)) {
+                throw new ConflictException("Email já cadastrado.");
+            }
+            throw e;
         }
     }
 
     // Valida regras básicas do email
-    private void validaEmail(String email) {
+    void validaEmail(String email) {
 
         // Verifica se o email é nulo ou vazio
         if (email == null || email.trim().isEmpty()) {
@@ -82,7 +163,7 @@ public class UsuarioService {
     }
 
     // Valida regras básicas da senha
-    private void validaSenha(String senha) {
+    void validaSenha(String senha) {
 
         // Verifica se a senha é nula ou vazia
         if (senha == null || senha.trim().isEmpty()) {
@@ -95,7 +176,8 @@ public class UsuarioService {
         }
     }
 
-    // Busca um usuário pelo email
+    // Busca um usuário pelo email. Não é transacional para que acertos no cache não ocupem
+    // uma conexão; em caso de falha, cada consulta roda em sua própria transação somente leitura
     public UsuarioDTO buscarUsuarioPorEmail(String email) {
 
         // Valida se o email foi informado
@@ -103,28 +185,156 @@ public class UsuarioService {
             throw new ConflictException("Email não pode ser vazio.");
         }
 
-        // Busca o usuário no banco ou lança exceção se não existir
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        // Retorna do cache ou monta o DTO (sem a senha); o cache lê do primário logo após uma alteração,
+        // para não guardar o estado anterior que a réplica ainda não recebeu
+        return usuarioCache.busca(email, this::carregaUsuarioDTO);
+    }
+
+    // Monta o UsuarioDTO completo a partir do banco
+    private UsuarioDTO carregaUsuarioDTO(String email) {
+
+        // Responde sem consultar o banco quando o email certamente não está cadastrado
+        if (emailBloomFilter.isDefinitivamenteAusente(email)) {
+            throw new ResourceNotFoundException("Email não encontrado.");
+        }
+
+        // Busca o usuário já com os endereços (join fetch) ou lança exceção se não existir
+        Usuario usuario = usuarioRepository.findComEnderecosByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Email não encontrado."));
 
-        // Converte a entidade para DTO e retorna
-        return usuarioConverter.paraUsuarioDTO(usuario);
+        // Busca os telefones em uma segunda consulta, evitando o produto cartesiano de duas coleções
+        List<Telefone> telefones = telefoneRepository.findByUsuarioIds(List.of(usuario.getId()));
+
+        // Converte a entidade para DTO sem disparar carregamentos lazy
+        return usuarioConverter.paraUsuarioDTO(usuario, usuario.getEnderecos(), telefones);
     }
 
-    // Deleta um usuário pelo email
-    public void deletaUsuarioPorEmail(String email) {
+    // Monta o JSON do GET /usuario direto das linhas do banco, sem entidades, DTOs nem cache
+    @Transactional(readOnly = true)
+    public UsuarioJsonDTO buscaUsuarioJson(String email) {
 
-        // Verifica se o usuário existe antes de deletar
-        if (!usuarioRepository.existsByEmail(email)) {
+        // Valida se o email foi informado
+        if (email == null || email.trim().isEmpty()) {
+            throw new ConflictException("Email não pode ser vazio.");
+        }
+
+        // Responde sem consultar o banco quando o email certamente não está cadastrado
+        String emailNormalizado = Usuario.normalizaEmail(email);
+        if (emailBloomFilter.isDefinitivamenteAusente(emailNormalizado)) {
             throw new ResourceNotFoundException("Email não encontrado.");
         }
 
-        // Deleta o usuário pelo email
-        usuarioRepository.deleteByEmail(email);
+        // Lê as colunas do usuário e escreve endereços e telefones enquanto percorre as linhas.
+        // O corpo (alguns KB) fica em memória em vez de ir direto para a resposta: a conexão é
+        // devolvida sem depender da velocidade do cliente, e uma falha no meio da leitura ainda
+        // vira uma resposta de erro em vez de um 200 truncado
+        UsuarioJdbcRepository.UsuarioLinha usuario = usuarioJdbcRepository.buscaUsuarioLinha(emailNormalizado)
+                .orElseThrow(() -> new ResourceNotFoundException("Email não encontrado."));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(1024);
+        try {
+            usuarioJsonWriter.escreve(saida, usuario.nome(), usuario.email(),
+                    handler -> usuarioJdbcRepository.percorreEnderecos(usuario.id(), handler),
+                    handler -> usuarioJdbcRepository.percorreTelefones(usuario.id(), handler));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return new UsuarioJsonDTO(saida.toByteArray(), usuario.versao());
+    }
+
+    // Busca usuários por prefixo do nome, cidade, estado e DDD, paginando pelo id
+    @Transactional(readOnly = true)
+    public PaginaUsuarioDTO buscaUsuarios(String nomePrefixo, String cidade, String estado, String ddd,
+                                          String cursorNome, long cursor, int limite) {
+
+        // Limita o tamanho da página
+        int tamanhoPagina = Math.max(1, Math.min(limite, limiteMaximoBusca));
+
+        // Busca apenas os dados resumidos, sem carregar os agregados
+        UsuarioBuscaRepository.Filtro filtro = new UsuarioBuscaRepository.Filtro(vazioParaNulo(nomePrefixo),
+                vazioParaNulo(cidade), vazioParaNulo(estado), vazioParaNulo(ddd));
+        List<UsuarioResumoDTO> usuarios = usuarioBuscaRepository.busca(filtro, cursorNome, cursor, tamanhoPagina)
+                .stream()
+                .map(u -> new UsuarioResumoDTO(u.getId(), u.getNome(), u.getEmail()))
+                .toList();
+
+        // O próximo cursor é o último id da página (e, na busca por nome, o último nome),
+        // ou nulo quando não há mais resultados
+        if (usuarios.size() < tamanhoPagina) {
+            return new PaginaUsuarioDTO(usuarios, null, null);
+        }
+        UsuarioResumoDTO ultimo = usuarios.get(usuarios.size() - 1);
+        return new PaginaUsuarioDTO(usuarios, ultimo.getId(), filtro.nomePrefixo() != null ? ultimo.getNome() : null);
+    }
+
+    // Lista as alterações gravadas na outbox após o cursor, em ordem
+    @Transactional(readOnly = true)
+    public PaginaAlteracaoDTO buscaAlteracoes(long cursor, int limite) {
+
+        // Limita o tamanho da página
+        int tamanhoPagina = Math.max(1, Math.min(limite, limiteMaximoFeed));
+
+        // Busca apenas eventos antigos o suficiente para que nenhum id menor ainda esteja pendente
+        List<AlteracaoDTO> alteracoes = usuarioJdbcRepository
+                .buscaEventosOutbox(cursor, atrasoVisibilidadeFeed.toMillis(), tamanhoPagina)
+                .stream()
+                .map(e -> new AlteracaoDTO(e.getId(), e.getEntidade(), e.getOperacao(), e.getEntidadeId(),
+                        e.getUsuarioId(), e.getEmail(), e.getCriadoEm()))
+                .toList();
+
+        // O feed não tem fim: sem novidades, o cliente volta a consultar com o mesmo cursor
+        Long proximoCursor = alteracoes.isEmpty() ? cursor : alteracoes.get(alteracoes.size() - 1).getCursor();
+        return new PaginaAlteracaoDTO(alteracoes, proximoCursor);
+    }
+
+    // Trata filtros vazios como ausentes
+    private static String vazioParaNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    // Busca apenas a versão do usuário, usada para responder requisições condicionais sem montar o DTO
+    @Transactional(readOnly = true)
+    public Long buscaVersaoUsuario(String email) {
+        return usuarioRepository.findVersaoByEmail(Usuario.normalizaEmail(email))
+                .orElseThrow(() -> new ResourceNotFoundException("Email não encontrado."));
     }
 
-    // Atualiza os dados do usuário autenticado
-    public UsuarioDTO atualizaDadosUsuario(String token, UsuarioDTO usuarioDTO) {
+    // Deleta um usuário pelo email com poucos comandos em lote, sem carregar a entidade
+    @Transactional
+    public void deletaUsuarioPorEmail(String email) {
+
+        // Normaliza o email para usar o índice único
+        String emailNormalizado = Usuario.normalizaEmail(email);
+
+        // Busca apenas o id do usuário, evitando a consulta quando o filtro garante a ausência
+        Long id = (emailBloomFilter.isDefinitivamenteAusente(emailNormalizado)
+                ? Optional.<Long>empty()
+                : usuarioRepository.findIdByEmail(emailNormalizado))
+                .orElseThrow(() -> new ResourceNotFoundException("Email não encontrado."));
+
+        if (exclusaoLogica) {
+            // Apenas marca o usuário como excluído; a remoção física fica para o expurgo em segundo plano
+            usuarioRepository.marcaExcluido(id, Instant.now());
+        } else {
+            // Remove filhos e usuário com um comando por tabela
+            enderecoRepository.deleteByUsuarioIds(List.of(id));
+            telefoneRepository.deleteByUsuarioIds(List.of(id));
+            usuarioRepository.excluiPorId(id);
+        }
+        // O evento de exclusão na outbox, gravado na mesma transação, também serve de registro da
+        // revogação para as outras instâncias quando a linha do usuário já foi removida
+        registraAlteracao(EventoAlteracao.Entidade.USUARIO, EventoAlteracao.Operacao.EXCLUSAO, id, id, emailNormalizado);
+
+        // Após o commit, remove o usuário dos caches e revoga os tokens já emitidos
+        aposCommit(() -> {
+            userDetailsService.invalidaCache(emailNormalizado);
+            usuarioCache.invalida(emailNormalizado);
+            tokenVersionService.revoga(emailNormalizado);
+        });
+    }
+
+    // Atualiza os dados do usuário autenticado, gravando apenas as colunas alteradas.
+    // O hash da nova senha é feito antes de abrir a transação
+    public UsuarioDTO atualizaDadosUsuario(String token, UsuarioDTO usuarioDTO, Long versaoEsperada) {
 
         // Verifica se o DTO é nulo
         if (usuarioDTO == null) {
@@ -134,6 +344,9 @@ public class UsuarioService {
         // Extrai o email do token JWT removendo "Bearer "
         String email = jwtUtil.extractUsername(token.substring(7));
 
+        // Normaliza o novo email, se informado
+        usuarioDTO.setEmail(Usuario.normalizaEmail(usuarioDTO.getEmail()));
+
         // Criptografa a senha apenas se ela foi enviada
         usuarioDTO.setSenha(
                 usuarioDTO.getSenha() != null
@@ -141,55 +354,141 @@ public class UsuarioService {
                         : null
         );
 
+        // Lê, confere a versão e grava em uma única transação
+        return transactionTemplate.execute(status -> gravaDadosUsuario(email, usuarioDTO, versaoEsperada));
+    }
+
+    // Aplica a atualização do usuário dentro da transação aberta por atualizaDadosUsuario
+    private UsuarioDTO gravaDadosUsuario(String email, UsuarioDTO usuarioDTO, Long versaoEsperada) {
+
         // Busca os dados atuais do usuário no banco
         Usuario usuarioEntity = usuarioRepository.findByEmail(email).orElseThrow(
                 () -> new ResourceNotFoundException("Email não encontrado")
         );
 
-        // Mescla os dados do DTO com a entidade existente
-        Usuario usuario = usuarioConverter.atualizaUsuario(usuarioDTO, usuarioEntity);
+        // Rejeita a atualização se o usuário foi alterado desde a versão conhecida pelo cliente
+        verificaVersao(versaoEsperada, usuarioEntity.getVersao());
 
-        // Salva e converte a entidade atualizada em DTO
-        return usuarioConverter.paraUsuarioDTO(
-                usuarioRepository.save(usuario)
-        );
+        // Aplica na entidade gerenciada apenas os dados alterados; sem alterações, nada é gravado
+        if (!usuarioConverter.atualizaUsuario(usuarioDTO, usuarioEntity)) {
+            return usuarioConverter.paraUsuarioDTO(usuarioEntity);
+        }
+
+        // Revoga os tokens já emitidos quando a senha ou o email forem alterados
+        boolean credenciaisAlteradas = usuarioDTO.getSenha() != null || !usuarioEntity.getEmail().equals(email);
+        if (credenciaisAlteradas) {
+            usuarioEntity.incrementaVersaoToken();
+        }
+
+        // Grava as colunas alteradas, rejeitando um novo email que já esteja em uso
+        Usuario usuarioSalvo = salvaComEmailUnico(usuarioEntity);
+        String novoEmail = usuarioSalvo.getEmail();
+        Long novaVersaoToken = usuarioSalvo.getVersaoToken();
+        registraAlteracao(EventoAlteracao.Entidade.USUARIO, EventoAlteracao.Operacao.ATUALIZACAO,
+                usuarioSalvo.getId(), usuarioSalvo.getId(), novoEmail);
+
+        // Após o commit, atualiza o filtro de emails e remove dos caches o email antigo e o novo
+        aposCommit(() -> {
+            emailBloomFilter.adiciona(novoEmail);
+            userDetailsService.invalidaCache(email);
+            userDetailsService.invalidaCache(novoEmail);
+            usuarioCache.invalida(email);
+            usuarioCache.invalida(novoEmail);
+
+            // Propaga a nova versão do token para o mapa em memória
+            if (credenciaisAlteradas) {
+                if (!novoEmail.equals(email)) {
+                    tokenVersionService.revoga(email);
+                }
+                tokenVersionService.atualizaVersao(novoEmail, novaVersaoToken);
+            }
+        });
+
+        // Converte a entidade atualizada em DTO
+        return usuarioConverter.paraUsuarioDTO(usuarioSalvo);
     }
 
-    // Atualiza um endereço pelo ID
-    public EnderecoDTO atualizaDadosEndereco(Long idEndereco, EnderecoDTO enderecoDTO) {
+    // Atualiza um endereço pelo ID, gravando apenas as colunas alteradas
+    @Transactional
+    public EnderecoDTO atualizaDadosEndereco(Long idEndereco, EnderecoDTO enderecoDTO, Long versaoEsperada) {
 
         // Busca o endereço pelo ID ou lança exceção se não existir
         Endereco enderecoEntity = enderecoRepository.findById(idEndereco).orElseThrow(
                 () -> new ResourceNotFoundException("Id não encontrado" + idEndereco)
         );
 
-        // Atualiza os dados do endereço com base no DTO
-        Endereco endereco = usuarioConverter.atualizaEndereco(enderecoDTO, enderecoEntity);
+        // Rejeita a atualização se o usuário dono (perfil ou qualquer filho) foi alterado desde o ETag do cliente
+        Long versaoUsuario = travaVersaoDoUsuario(enderecoEntity.getUsuario_id());
+        verificaVersao(versaoEsperada, versaoUsuario);
+
+        // Valida o novo CEP, se informado, e preenche cidade e estado a partir dele
+        if (enderecoDTO.getCep() != null) {
+            preencheLocalidade(enderecoDTO);
+        } else if ((enderecoDTO.getCidade() != null || enderecoDTO.getEstado() != null) && enderecoEntity.getCep() != null) {
+            // Sem novo CEP, a nova cidade ou estado precisa corresponder ao CEP já gravado
+            EnderecoDTO combinado = EnderecoDTO.builder()
+                    .cep(enderecoEntity.getCep())
+                    .cidade(enderecoDTO.getCidade())
+                    .estado(enderecoDTO.getEstado())
+                    .build();
+            preencheLocalidade(combinado);
+            enderecoDTO.setCidade(combinado.getCidade());
+            enderecoDTO.setEstado(combinado.getEstado());
+        }
 
-        // Salva e converte a entidade atualizada em DTO
-        return usuarioConverter.paraEnderecoDTO(
-                enderecoRepository.save(endereco)
-        );
+        // Aplica na entidade gerenciada apenas os dados alterados; sem alterações, nada é gravado
+        if (usuarioConverter.atualizaEndereco(enderecoDTO, enderecoEntity)) {
+
+            // Grava as colunas alteradas para obter a nova versão
+            enderecoRepository.flush();
+
+            // Incrementa a versão do dono do endereço e o remove do cache
+            alteraFilhoDoUsuario(enderecoEntity.getUsuario_id());
+            registraAlteracao(EventoAlteracao.Entidade.ENDERECO, EventoAlteracao.Operacao.ATUALIZACAO,
+                    enderecoEntity.getId(), enderecoEntity.getUsuario_id(), null);
+            versaoUsuario++;
+        }
+
+        // Converte a entidade atualizada em DTO, com a nova versão do usuário para o ETag
+        EnderecoDTO atualizado = usuarioConverter.paraEnderecoDTO(enderecoEntity);
+        atualizado.setVersao(versaoUsuario);
+        return atualizado;
     }
 
-    // Atualiza um telefone pelo ID
-    public TelefoneDTO atualizaDadosTelefone(Long idTelefone, TelefoneDTO telefoneDTO) {
+    // Atualiza um telefone pelo ID, gravando apenas as colunas alteradas
+    @Transactional
+    public TelefoneDTO atualizaDadosTelefone(Long idTelefone, TelefoneDTO telefoneDTO, Long versaoEsperada) {
 
         // Busca o telefone pelo ID ou lança exceção se não existir
         Telefone telefoneEntity = telefoneRepository.findById(idTelefone).orElseThrow(
                 () -> new ResourceNotFoundException("Id não encontrado" + idTelefone)
         );
 
-        // Atualiza os dados do telefone com base no DTO
-        Telefone telefone = usuarioConverter.atualizaTelefone(telefoneDTO, telefoneEntity);
+        // Rejeita a atualização se o usuário dono (perfil ou qualquer filho) foi alterado desde o ETag do cliente
+        Long versaoUsuario = travaVersaoDoUsuario(telefoneEntity.getUsuario_id());
+        verificaVersao(versaoEsperada, versaoUsuario);
 
-        // Salva e converte a entidade atualizada em DTO
-        return usuarioConverter.paraTelefoneDTO(
-                telefoneRepository.save(telefone)
-        );
+        // Aplica na entidade gerenciada apenas os dados alterados; sem alterações, nada é gravado
+        if (usuarioConverter.atualizaTelefone(telefoneDTO, telefoneEntity)) {
+
+            // Grava as colunas alteradas para obter a nova versão
+            telefoneRepository.flush();
+
+            // Incrementa a versão do dono do telefone e o remove do cache
+            alteraFilhoDoUsuario(telefoneEntity.getUsuario_id());
+            registraAlteracao(EventoAlteracao.Entidade.TELEFONE, EventoAlteracao.Operacao.ATUALIZACAO,
+                    telefoneEntity.getId(), telefoneEntity.getUsuario_id(), null);
+            versaoUsuario++;
+        }
+
+        // Converte a entidade atualizada em DTO, com a nova versão do usuário para o ETag
+        TelefoneDTO atualizado = usuarioConverter.paraTelefoneDTO(telefoneEntity);
+        atualizado.setVersao(versaoUsuario);
+        return atualizado;
     }
 
     // Cadastra um novo endereço para o usuário autenticado
+    @Transactional
     public EnderecoDTO cadastraNovoEndereco(String token, EnderecoDTO enderecoDTO) {
 
         // Extrai o email do token JWT
@@ -200,17 +499,27 @@ public class UsuarioService {
                 () -> new ResourceNotFoundException("Email não encontrado")
         );
 
+        // Valida o CEP e preenche cidade e estado a partir dele
+        preencheLocalidade(enderecoDTO);
+
         // Converte o DTO em entidade Endereco associando ao usuário
         Endereco endereco = usuarioConverter.paraEnderecoEntity(enderecoDTO, usuario.getId());
 
         // Salva o endereço no banco
         Endereco enderecoEntity = enderecoRepository.save(endereco);
+        registraAlteracao(EventoAlteracao.Entidade.ENDERECO, EventoAlteracao.Operacao.CRIACAO,
+                enderecoEntity.getId(), usuario.getId(), email);
+
+        // Incrementa a versão do usuário e o remove do cache após o commit
+        usuarioRepository.incrementaVersao(usuario.getId());
+        aposCommit(() -> usuarioCache.invalida(email));
 
         // Converte e retorna o DTO
         return usuarioConverter.paraEnderecoDTO(enderecoEntity);
     }
 
-    // Cadastra um novo endereco para o usuário autenticado
+    // Cadastra um novo telefone para o usuário autenticado
+    @Transactional
     public TelefoneDTO cadastraNovoTelefone(String token, TelefoneDTO telefoneDTO) {
 
         // Extrai o email do token JWT
@@ -226,9 +535,184 @@ public class UsuarioService {
 
         //Salva o telefone no banco
         Telefone telefoneEntity = telefoneRepository.save(telefone);
+        registraAlteracao(EventoAlteracao.Entidade.TELEFONE, EventoAlteracao.Operacao.CRIACAO,
+                telefoneEntity.getId(), usuario.getId(), email);
+
+        // Incrementa a versão do usuário e o remove do cache após o commit
+        usuarioRepository.incrementaVersao(usuario.getId());
+        aposCommit(() -> usuarioCache.invalida(email));
 
         // Converte e retorna o DTO
         return usuarioConverter.paraTelefoneDTO(telefoneEntity);
     }
 
+    // Cadastra vários endereços para o usuário autenticado em uma única transação
+    @Transactional
+    public List<EnderecoDTO> cadastraEnderecosEmLote(String token, List<EnderecoDTO> enderecoDTOs) {
+
+        // Valida o tamanho do lote e o CEP de cada endereço
+        validaTamanhoLote(enderecoDTOs);
+        enderecoDTOs.forEach(this::preencheLocalidade);
+
+        // Extrai o email do token JWT e busca apenas o id do usuário, uma única vez
+        String email = jwtUtil.extractUsername(token.substring(7));
+        Long usuarioId = usuarioRepository.findIdByEmail(email).orElseThrow(
+                () -> new ResourceNotFoundException("Email não encontrado")
+        );
+
+        // Converte os DTOs associando ao usuário e reserva os ids de uma só vez
+        List<Endereco> enderecos = enderecoDTOs.stream()
+                .map(dto -> usuarioConverter.paraEnderecoEntity(dto, usuarioId))
+                .toList();
+        List<Long> ids = usuarioJdbcRepository.reservaIds("endereco", enderecos.size());
+        for (int i = 0; i < enderecos.size(); i++) {
+            enderecos.get(i).setId(ids.get(i));
+            enderecos.get(i).setVersao(0L);
+        }
+
+        // Insere todos os endereços em batch JDBC
+        usuarioJdbcRepository.insereEnderecos(enderecos);
+        registraAlteracoes(enderecos.stream()
+                .map(e -> EventoAlteracao.de(EventoAlteracao.Entidade.ENDERECO, EventoAlteracao.Operacao.CRIACAO,
+                        e.getId(), usuarioId, email))
+                .toList());
+
+        // Incrementa a versão do usuário e o remove do cache após o commit
+        usuarioRepository.incrementaVersao(usuarioId);
+        aposCommit(() -> usuarioCache.invalida(email));
+
+        // Converte e retorna os DTOs com os ids gerados
+        return usuarioConverter.paraListaEnderecoDTO(enderecos);
+    }
+
+    // Cadastra vários telefones para o usuário autenticado em uma única transação
+    @Transactional
+    public List<TelefoneDTO> cadastraTelefonesEmLote(String token, List<TelefoneDTO> telefoneDTOs) {
+
+        // Valida o tamanho do lote
+        validaTamanhoLote(telefoneDTOs);
+
+        // Extrai o email do token JWT e busca apenas o id do usuário, uma única vez
+        String email = jwtUtil.extractUsername(token.substring(7));
+        Long usuarioId = usuarioRepository.findIdByEmail(email).orElseThrow(
+                () -> new ResourceNotFoundException("Email não encontrado")
+        );
+
+        // Converte os DTOs associando ao usuário e reserva os ids de uma só vez
+        List<Telefone> telefones = telefoneDTOs.stream()
+                .map(dto -> usuarioConverter.paraTelefoneEntity(dto, usuarioId))
+                .toList();
+        List<Long> ids = usuarioJdbcRepository.reservaIds("telefone", telefones.size());
+        for (int i = 0; i < telefones.size(); i++) {
+            telefones.get(i).setId(ids.get(i));
+            telefones.get(i).setVersao(0L);
+        }
+
+        // Insere todos os telefones em batch JDBC
+        usuarioJdbcRepository.insereTelefones(telefones);
+        registraAlteracoes(telefones.stream()
+                .map(t -> EventoAlteracao.de(EventoAlteracao.Entidade.TELEFONE, EventoAlteracao.Operacao.CRIACAO,
+                        t.getId(), usuarioId, email))
+                .toList());
+
+        // Incrementa a versão do usuário e o remove do cache após o commit
+        usuarioRepository.incrementaVersao(usuarioId);
+        aposCommit(() -> usuarioCache.invalida(email));
+
+        // Converte e retorna os DTOs com os ids gerados
+        return usuarioConverter.paraListaTelefoneDTO(telefones);
+    }
+
+    // Valida o CEP na base local e preenche cidade e estado quando não informados;
+    // sem base carregada, o endereço é aceito como enviado
+    private void preencheLocalidade(EnderecoDTO enderecoDTO) {
+        if (!cepIndex.isDisponivel() || enderecoDTO == null) {
+            return;
+        }
+
+        int cep = CepIndex.paraNumero(enderecoDTO.getCep());
+        if (cep < 0) {
+            throw new BusinessException("CEP inválido.");
+        }
+        CepIndex.Localidade localidade = cepIndex.busca(enderecoDTO.getCep())
+                .orElseThrow(() -> new BusinessException("CEP não encontrado."));
+
+        // Rejeita cidade ou estado que não correspondam ao CEP
+        if (enderecoDTO.getCidade() != null && !enderecoDTO.getCidade().isBlank()
+                && !enderecoDTO.getCidade().trim().equalsIgnoreCase(localidade.cidade())) {
+            throw new BusinessException("Cidade não corresponde ao CEP.");
+        }
+        if (enderecoDTO.getEstado() != null && !enderecoDTO.getEstado().isBlank()
+                && !enderecoDTO.getEstado().trim().equalsIgnoreCase(localidade.estado())) {
+            throw new BusinessException("Estado não corresponde ao CEP.");
+        }
+
+        enderecoDTO.setCep(CepIndex.formata(cep));
+        enderecoDTO.setCidade(localidade.cidade());
+        enderecoDTO.setEstado(localidade.estado());
+    }
+
+    // Verifica se o lote não está vazio nem ultrapassa o limite configurado
+    private void validaTamanhoLote(List<?> itens) {
+        if (itens == null || itens.isEmpty() || itens.size() > tamanhoMaximoLote) {
+            throw new BusinessException("O lote deve ter entre 1 e " + tamanhoMaximoLote + " itens.");
+        }
+    }
+
+    // Lê a versão do usuário dono de um endereço ou telefone, travando a linha até o commit para que a
+    // verificação do If-Match e o incremento de alteraFilhoDoUsuario não se intercalem com outra alteração
+    private Long travaVersaoDoUsuario(Long usuarioId) {
+        if (usuarioId == null) {
+            throw new ResourceNotFoundException("Usuário não encontrado.");
+        }
+        return usuarioRepository.findVersaoParaAlteracao(usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado."));
+    }
+
+    // Incrementa a versão do usuário dono de um endereço ou telefone e o remove do cache,
+    // para que o ETag do perfil mude junto com os dados filhos
+    private void alteraFilhoDoUsuario(Long usuarioId) {
+        if (usuarioId != null) {
+            usuarioRepository.incrementaVersao(usuarioId);
+            usuarioRepository.findEmailById(usuarioId).ifPresent(email -> aposCommit(() -> usuarioCache.invalida(email)));
+        }
+    }
+
+    // Registra uma alteração na outbox e no log local
+    private void registraAlteracao(EventoAlteracao.Entidade entidade, EventoAlteracao.Operacao operacao,
+                                   Long id, Long usuarioId, String email) {
+        registraAlteracoes(List.of(EventoAlteracao.de(entidade, operacao, id, usuarioId, email)));
+    }
+
+    // Grava os eventos na outbox dentro da transação atual, para que só existam se a alteração
+    // for confirmada, e os publica no log local após o commit, sem bloquear a requisição
+    private void registraAlteracoes(List<EventoAlteracao> eventos) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Alterações devem ser registradas dentro de uma transação.");
+        }
+        usuarioJdbcRepository.insereEventosOutbox(eventos);
+        aposCommit(() -> eventos.forEach(logEventosAlteracao::publica));
+    }
+
+    // Executa a ação após o commit da transação atual, ou imediatamente quando não houver transação
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    // Verifica a versão informada no If-Match, quando presente
+    private void verificaVersao(Long versaoEsperada, Long versaoAtual) {
+        if (versaoEsperada != null && !versaoEsperada.equals(versaoAtual)) {
+            throw new PreconditionFailedException("Recurso alterado por outra requisição.");
+        }
+    }
+
 }
@@ -9,6 +9,8 @@ import com.vssfullstack.usuario.infrastructure.entity.Usuario;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Component
 public class UsuarioConverter {
@@ -74,6 +76,21 @@ public class UsuarioConverter {
                 .senha(usuario.getSenha())
                 .enderecos(usuario.getEnderecos() != null ? paraListaEnderecoDTO(usuario.getEnderecos()) : null)
                 .telefones(usuario.getTelefones() != null ? paraListaTelefoneDTO(usuario.getTelefones()) : null)
+                .versao(usuario.getVersao())
+                .build();
+    }
+
+    // Converte entidade Usuario para UsuarioDTO usando as listas já carregadas, sem acessar as coleções lazy
+    public UsuarioDTO paraUsuarioDTO(Usuario usuario, List<Endereco> enderecos, List<Telefone> telefones) {
+
+        // Cria o DTO Usuario a partir da entidade e das listas informadas
+        return UsuarioDTO.builder()
+                .nome(usuario.getNome())
+                .email(usuario.getEmail())
+                .senha(usuario.getSenha())
+                .enderecos(paraListaEnderecoDTO(enderecos))
+                .telefones(paraListaTelefoneDTO(telefones))
+                .versao(usuario.getVersao())
                 .build();
     }
 
@@ -96,6 +113,7 @@ public class UsuarioConverter {
                 .complemento(endereco.getComplemento())
                 .cep(endereco.getCep())
                 .estado(endereco.getEstado())
+                .versao(endereco.getVersao())
                 .build();
     }
 
@@ -114,49 +132,46 @@ public class UsuarioConverter {
                 .id(telefone.getId())
                 .numero(telefone.getNumero())
                 .ddd(telefone.getDdd())
+                .versao(telefone.getVersao())
                 .build();
     }
 
-    // Atualiza dados do usuário mantendo valores antigos quando DTO for nulo
-    public Usuario atualizaUsuario(UsuarioDTO usuarioDTO, Usuario usuario) {
+    // Atualiza no próprio objeto apenas os dados informados e diferentes dos atuais, retornando se algo mudou
+    public boolean atualizaUsuario(UsuarioDTO usuarioDTO, Usuario usuario) {
 
-        // Cria nova entidade Usuario mesclando dados novos e antigos
-        return Usuario.builder()
-                .nome(usuarioDTO.getNome() != null ? usuarioDTO.getNome() : usuario.getNome())
-                .id(usuario.getId())
-                .senha(usuarioDTO.getSenha() != null ? usuarioDTO.getSenha() : usuario.getSenha())
-                .email(usuarioDTO.getEmail() != null ? usuarioDTO.getEmail() : usuario.getEmail())
-                .enderecos(usuario.getEnderecos())
-                .telefones(usuario.getTelefones())
-                .build();
+        // Aplica cada campo informado, mantendo os valores antigos quando o DTO for nulo
+        return aplica(usuarioDTO.getNome(), usuario::getNome, usuario::setNome)
+                | aplica(usuarioDTO.getSenha(), usuario::getSenha, usuario::setSenha)
+                | aplica(usuarioDTO.getEmail(), usuario::getEmail, usuario::setEmail);
     }
 
-    // Atualiza dados do endereço mantendo valores antigos quando DTO for nulo
-    public Endereco atualizaEndereco(EnderecoDTO enderecoDTO, Endereco endereco) {
+    // Atualiza no próprio objeto apenas os dados informados e diferentes dos atuais, retornando se algo mudou
+    public boolean atualizaEndereco(EnderecoDTO enderecoDTO, Endereco endereco) {
 
-        // Cria nova entidade Endereco mesclando dados novos e antigos
-        return Endereco.builder()
-                .id(endereco.getId())
-                .rua(enderecoDTO.getRua() != null ? enderecoDTO.getRua() : endereco.getRua())
-                .numero(enderecoDTO.getNumero() != null ? enderecoDTO.getNumero() : endereco.getNumero())
-                .cidade(enderecoDTO.getCidade() != null ? enderecoDTO.getCidade() : endereco.getCidade())
-                .estado(enderecoDTO.getEstado() != null ? enderecoDTO.getEstado() : endereco.getEstado())
-                .cep(enderecoDTO.getCep() != null ? enderecoDTO.getCep() : endereco.getCep())
-                .complemento(enderecoDTO.getComplemento() != null ? enderecoDTO.getComplemento() : endereco.getComplemento())
-                .usuario_id(endereco.getUsuario_id())
-                .build();
+        // Aplica cada campo informado, mantendo os valores antigos quando o DTO for nulo
+        return aplica(enderecoDTO.getRua(), endereco::getRua, endereco::setRua)
+                | aplica(enderecoDTO.getNumero(), endereco::getNumero, endereco::setNumero)
+                | aplica(enderecoDTO.getCidade(), endereco::getCidade, endereco::setCidade)
+                | aplica(enderecoDTO.getEstado(), endereco::getEstado, endereco::setEstado)
+                | aplica(enderecoDTO.getCep(), endereco::getCep, endereco::setCep)
+                | aplica(enderecoDTO.getComplemento(), endereco::getComplemento, endereco::setComplemento);
     }
 
-    // Atualiza dados do telefone mantendo valores antigos quando DTO for nulo
-    public Telefone atualizaTelefone(TelefoneDTO telefoneDTO, Telefone telefone) {
+    // Atualiza no próprio objeto apenas os dados informados e diferentes dos atuais, retornando se algo mudou
+    public boolean atualizaTelefone(TelefoneDTO telefoneDTO, Telefone telefone) {
 
-        // Cria nova entidade Telefone mesclando dados novos e antigos
-        return Telefone.builder()
-                .id(telefone.getId())
-                .ddd(telefoneDTO.getDdd() != null ? telefoneDTO.getDdd() : telefone.getDdd())
-                .numero(telefoneDTO.getNumero() != null ? telefoneDTO.getNumero() : telefone.getNumero())
-                .usuario_id(telefone.getUsuario_id())
-                .build();
+        // Aplica cada campo informado, mantendo os valores antigos quando o DTO for nulo
+        return aplica(telefoneDTO.getDdd(), telefone::getDdd, telefone::setDdd)
+                | aplica(telefoneDTO.getNumero(), telefone::getNumero, telefone::setNumero);
+    }
+
+    // Aplica o novo valor quando informado e diferente do atual, retornando se houve alteração
+    private static <T> boolean aplica(T novo, Supplier<T> atual, Consumer<T> setter) {
+        if (novo == null || novo.equals(atual.get())) {
+            return false;
+        }
+        setter.accept(novo);
+        return true;
     }
 
     // Converte EnderecoDTO em entidade Endereco associada a um usuário
@@ -0,0 +1,144 @@
+package com.vssfullstack.usuario.business.converter;
+
+import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.TelefoneDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Escreve o JSON do UsuarioDTO direto das linhas do banco, sem entidades nem DTOs.
+// A ordem das propriedades e a inclusão de nulos são lidas do ObjectMapper na inicialização,
+// para que a saída seja idêntica, byte a byte, à serialização do UsuarioDTO
+@Component
+public class UsuarioJsonWriter {
+
+    // Percorre as linhas de uma lista (endereços ou telefones)
+    @FunctionalInterface
+    public interface Linhas {
+        void percorre(RowCallbackHandler handler) throws SQLException;
+    }
+
+    private static final Set<String> PROPRIEDADES_USUARIO = Set.of("nome", "email", "senha", "enderecos", "telefones");
+    private static final Set<String> PROPRIEDADES_ENDERECO = Set.of("id", "rua", "numero", "complemento", "cidade", "estado", "cep");
+    private static final Set<String> PROPRIEDADES_TELEFONE = Set.of("id", "numero", "ddd");
+
+    private final ObjectMapper objectMapper;
+
+    // Ordem das propriedades de cada objeto, como o ObjectMapper as escreve
+    private final String[] ordemUsuario;
+    private final String[] ordemEndereco;
+    private final String[] ordemTelefone;
+
+    // Propriedades que o ObjectMapper escreve mesmo quando nulas ou vazias
+    private final Set<String> nulosUsuario;
+    private final Set<String> nulosEndereco;
+    private final Set<String> nulosTelefone;
+
+    public UsuarioJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+
+        // Amostra com todos os campos preenchidos revela a ordem das propriedades
+        EnderecoDTO endereco = new EnderecoDTO(1L, "r", "n", "c", "ci", "e", "cep", 0L);
+        TelefoneDTO telefone = new TelefoneDTO(1L, "n", "d", 0L);
+        JsonNode completo = objectMapper.valueToTree(
+                new UsuarioDTO("n", "e", "s", List.of(endereco), List.of(telefone), 0L));
+        this.ordemUsuario = nomes(completo, PROPRIEDADES_USUARIO);
+        this.ordemEndereco = nomes(completo.get("enderecos").get(0), PROPRIEDADES_ENDERECO);
+        this.ordemTelefone = nomes(completo.get("telefones").get(0), PROPRIEDADES_TELEFONE);
+
+        // Amostra vazia revela quais propriedades nulas ou listas vazias são escritas
+        JsonNode vazio = objectMapper.valueToTree(
+                new UsuarioDTO(null, null, null, List.of(new EnderecoDTO()), List.of(new TelefoneDTO()), null));
+        this.nulosEndereco = Set.of(nomes(vazio.get("enderecos").get(0), PROPRIEDADES_ENDERECO));
+        this.nulosTelefone = Set.of(nomes(vazio.get("telefones").get(0), PROPRIEDADES_TELEFONE));
+        this.nulosUsuario = Set.of(nomes(objectMapper.valueToTree(
+                new UsuarioDTO(null, null, null, List.of(), List.of(), null)), PROPRIEDADES_USUARIO));
+    }
+
+    // Escreve o usuário, consultando endereços e telefones à medida que o JSON é gerado.
+    // A senha nunca é exposta, como no DTO devolvido pelo cache
+    public void escreve(OutputStream saida, String nome, String email, Linhas enderecos, Linhas telefones)
+            throws SQLException {
+        try (JsonGenerator g = objectMapper.createGenerator(saida)) {
+            g.writeStartObject();
+            for (String campo : ordemUsuario) {
+                switch (campo) {
+                    case "nome" -> texto(g, campo, nome, nulosUsuario);
+                    case "email" -> texto(g, campo, email, nulosUsuario);
+                    case "senha" -> texto(g, campo, null, nulosUsuario);
+                    case "enderecos" -> lista(g, campo, enderecos, rs -> objeto(g, rs, ordemEndereco, nulosEndereco));
+                    default -> lista(g, campo, telefones, rs -> objeto(g, rs, ordemTelefone, nulosTelefone));
+                }
+            }
+            g.writeEndObject();
+        }
+    }
+
+    // Escreve a lista, abrindo o array apenas na primeira linha quando listas vazias são omitidas
+    private void lista(JsonGenerator g, String campo, Linhas linhas, RowCallbackHandler item) throws SQLException {
+        int[] quantidade = {0};
+        linhas.percorre(rs -> {
+            if (quantidade[0]++ == 0) {
+                g.writeName(campo);
+                g.writeStartArray();
+            }
+            item.processRow(rs);
+        });
+        if (quantidade[0] > 0) {
+            g.writeEndArray();
+        } else if (nulosUsuario.contains(campo)) {
+            g.writeName(campo);
+            g.writeStartArray();
+            g.writeEndArray();
+        }
+    }
+
+    // Escreve um endereço ou telefone; as colunas têm o mesmo nome das propriedades
+    private static void objeto(JsonGenerator g, ResultSet rs, String[] ordem, Set<String> nulos) throws SQLException {
+        g.writeStartObject();
+        for (String campo : ordem) {
+            if (campo.equals("id")) {
+                g.writeName(campo);
+                g.writeNumber(rs.getLong(campo));
+            } else {
+                texto(g, campo, rs.getString(campo), nulos);
+            }
+        }
+        g.writeEndObject();
+    }
+
+    private static void texto(JsonGenerator g, String campo, String valor, Set<String> nulos) {
+        if (valor != null) {
+            g.writeName(campo);
+            g.writeString(valor);
+        } else if (nulos.contains(campo)) {
+            g.writeName(campo);
+            g.writeNull();
+        }
+    }
+
+    // Nomes das propriedades do nó na ordem em que foram escritas, rejeitando propriedades desconhecidas
+    private static String[] nomes(JsonNode no, Set<String> conhecidas) {
+        Set<String> nomes = new HashSet<>();
+        String[] ordem = new String[no.size()];
+        int i = 0;
+        for (Map.Entry<String, JsonNode> propriedade : no.properties()) {
+            if (!conhecidas.contains(propriedade.getKey()) || !nomes.add(propriedade.getKey())) {
+                throw new IllegalStateException("Propriedade não suportada na escrita direta: " + propriedade.getKey());
+            }
+            ordem[i++] = propriedade.getKey();
+        }
+        return ordem;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AlteracaoDTO {
+
+    private Long cursor;
+    private String entidade;
+    private String operacao;
+    private Long id;
+    private Long usuarioId;
+    private String email;
+    private Instant instante;
+}
@@ -1,6 +1,7 @@
 package com.vssfullstack.usuario.business.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Getter
@@ -17,4 +18,9 @@ public class EnderecoDTO {
     private String cidade;
     private String estado;
     private String cep;
+
+    // Versão usada apenas para o cabeçalho ETag, não faz parte do corpo JSON. Na resposta de uma
+    // alteração é a versão do usuário dono, o mesmo ETag do perfil
+    @JsonIgnore
+    private Long versao;
 }
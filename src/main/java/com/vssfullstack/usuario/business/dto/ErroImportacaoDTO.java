@@ -0,0 +1,15 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ErroImportacaoDTO {
+
+    private long linha;
+    private String email;
+    private String mensagem;
+}
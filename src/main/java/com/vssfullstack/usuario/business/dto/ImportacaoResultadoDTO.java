@@ -0,0 +1,20 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportacaoResultadoDTO {
+
+    private long linhasLidas;
+    private long usuariosImportados;
+    private long erros;
+    private long duracaoMs;
+    private double usuariosPorSegundo;
+    private List<ErroImportacaoDTO> detalhesErros;
+}
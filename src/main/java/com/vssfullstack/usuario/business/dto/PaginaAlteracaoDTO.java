@@ -0,0 +1,16 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaAlteracaoDTO {
+
+    private List<AlteracaoDTO> alteracoes;
+    private Long proximoCursor;
+}
@@ -0,0 +1,19 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaUsuarioDTO {
+
+    private List<UsuarioResumoDTO> usuarios;
+    private Long proximoCursor;
+
+    // Nome do último usuário da página, enviado como cursorNome junto com o cursor na busca por nome
+    private String proximoCursorNome;
+}
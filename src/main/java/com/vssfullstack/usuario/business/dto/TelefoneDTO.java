@@ -1,5 +1,6 @@
 package com.vssfullstack.usuario.business.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Getter
@@ -13,4 +14,9 @@ public class TelefoneDTO {
     private String numero;
     private String ddd;
 
+    // Versão usada apenas para o cabeçalho ETag, não faz parte do corpo JSON. Na resposta de uma
+    // alteração é a versão do usuário dono, o mesmo ETag do perfil
+    @JsonIgnore
+    private Long versao;
+
 }
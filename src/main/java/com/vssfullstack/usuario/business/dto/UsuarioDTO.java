@@ -1,5 +1,6 @@
 package com.vssfullstack.usuario.business.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.util.List;
@@ -16,4 +17,8 @@ public class UsuarioDTO {
     private String senha;
     private List<EnderecoDTO> enderecos;
     private List<TelefoneDTO> telefones;
+
+    // Versão usada apenas para o cabeçalho ETag, não faz parte do corpo JSON
+    @JsonIgnore
+    private Long versao;
 }
@@ -0,0 +1,19 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UsuarioExportacaoDTO {
+
+    private Long id;
+    private String nome;
+    private String email;
+    private List<EnderecoDTO> enderecos;
+    private List<TelefoneDTO> telefones;
+}
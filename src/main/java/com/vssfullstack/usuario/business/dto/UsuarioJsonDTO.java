@@ -0,0 +1,14 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class UsuarioJsonDTO {
+
+    // Corpo JSON já serializado do usuário
+    private byte[] json;
+
+    // Versão usada no cabeçalho ETag
+    private Long versao;
+}
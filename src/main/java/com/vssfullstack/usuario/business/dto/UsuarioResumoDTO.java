@@ -0,0 +1,15 @@
+package com.vssfullstack.usuario.business.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UsuarioResumoDTO {
+
+    private Long id;
+    private String nome;
+    private String email;
+}
@@ -2,8 +2,12 @@ package com.vssfullstack.usuario.controller;
 
 import com.vssfullstack.usuario.infrastructure.exceptions.BusinessException;
 import com.vssfullstack.usuario.infrastructure.exceptions.ConflictException;
+import com.vssfullstack.usuario.infrastructure.exceptions.PreconditionFailedException;
 import com.vssfullstack.usuario.infrastructure.exceptions.ResourceNotFoundException;
+import com.vssfullstack.usuario.infrastructure.exceptions.ServiceUnavailableException;
 import com.vssfullstack.usuario.infrastructure.exceptions.UnauthorizedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -31,4 +35,21 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleBusinessException(BusinessException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException ex) {
+        return new ResponseEntity<>("Recurso alterado por outra requisição.", HttpStatus.PRECONDITION_FAILED);
+    }
 }
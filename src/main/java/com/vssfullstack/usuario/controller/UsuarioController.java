@@ -1,16 +1,33 @@
 package com.vssfullstack.usuario.controller;
 
+import com.vssfullstack.usuario.business.UsuarioExportacaoService;
+import com.vssfullstack.usuario.business.UsuarioImportacaoService;
 import com.vssfullstack.usuario.business.UsuarioService;
 import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.ImportacaoResultadoDTO;
+import com.vssfullstack.usuario.business.dto.PaginaAlteracaoDTO;
+import com.vssfullstack.usuario.business.dto.PaginaUsuarioDTO;
 import com.vssfullstack.usuario.business.dto.TelefoneDTO;
 import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioJsonDTO;
+import com.vssfullstack.usuario.infrastructure.exceptions.PreconditionFailedException;
 import com.vssfullstack.usuario.infrastructure.security.JwtUtil;
+import com.vssfullstack.usuario.infrastructure.security.TokenVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping("/usuario")
@@ -19,7 +36,18 @@ public class UsuarioController {
 
     private final JwtUtil jwtUtil;
     private final UsuarioService usuarioService;
+    private final UsuarioImportacaoService usuarioImportacaoService;
+    private final UsuarioExportacaoService usuarioExportacaoService;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersionService tokenVersionService;
+
+    // No modo stateless o token carrega a versão verificada pelo filtro; fora dele a versão não é usada
+    @Value("${security.stateless.enabled:false}")
+    private boolean stateless;
+
+    // Quando ativo, o GET /usuario escreve o JSON direto das linhas do banco, sem passar pelo cache
+    @Value("${usuario.leitura-direta.enabled:false}")
+    private boolean leituraDireta;
 
     // Endpoint para cadastrar um novo usuário
     @PostMapping
@@ -29,6 +57,27 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarioService.salvarUsuario(usuarioDTO));
     }
 
+    // Endpoint para importar usuários em massa a partir de NDJSON ou CSV (nome,email,senha)
+    @PostMapping(value = "/importacao", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportacaoResultadoDTO> importaUsuarios(InputStream corpo,
+                                                                  @RequestHeader("Content-Type") String contentType)
+            throws IOException {
+
+        // Processa o corpo em streaming e retorna o resumo com erros por linha e vazão
+        return ResponseEntity.ok(usuarioImportacaoService.importa(corpo, contentType));
+    }
+
+    // Endpoint para exportar todos os usuários em NDJSON, retomando a partir do último id recebido
+    @GetMapping(value = "/exportacao", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportaUsuarios(
+            @RequestParam(value = "cursor", defaultValue = "0") Long cursor) {
+
+        // Escreve a resposta de forma incremental, página por página
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(saida -> usuarioExportacaoService.exporta(cursor, saida));
+    }
+
     // Endpoint para autenticar o usuário e gerar o token JWT
     @PostMapping("/login")
     public String login(@RequestBody UsuarioDTO usuarioDTO) {
@@ -41,16 +90,62 @@ public class UsuarioController {
                 )
         );
 
-        // Gera e retorna o token JWT com o email do usuário
-        return "Bearer " + jwtUtil.generateToken(authentication.getName());
+        // Gera e retorna o token JWT com o email e, no modo stateless, a versão atual do token do usuário
+        return "Bearer " + jwtUtil.generateToken(
+                authentication.getName(),
+                stateless ? tokenVersionService.versaoAtual(authentication.getName()) : 0L
+        );
     }
 
     // Endpoint para buscar um usuário pelo email
     @GetMapping
-    public ResponseEntity<UsuarioDTO> buscarUsuarioPorEmail(@RequestParam("email") String email) {
+    public ResponseEntity<?> buscarUsuarioPorEmail(@RequestParam("email") String email,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // Em requisições condicionais, consulta apenas a versão e responde 304 se nada mudou
+        if (ifNoneMatch != null) {
+            String etag = etag(usuarioService.buscaVersaoUsuario(email));
+            if (contemEtag(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+
+        // Na leitura direta, devolve os bytes já serializados, idênticos aos do DTO
+        if (leituraDireta) {
+            UsuarioJsonDTO usuarioJson = usuarioService.buscaUsuarioJson(email);
+            return ResponseEntity.ok()
+                    .eTag(etag(usuarioJson.getVersao()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(usuarioJson.getJson());
+        }
+
+        // Chama o service para buscar o usuário e retorna o DTO com o ETag da versão
+        UsuarioDTO usuarioDTO = usuarioService.buscarUsuarioPorEmail(email);
+        return ResponseEntity.ok().eTag(etag(usuarioDTO.getVersao())).body(usuarioDTO);
+    }
+
+    // Endpoint para buscar usuários com filtros, paginado pelo id (keyset); na busca por nome,
+    // pelo par (cursorNome, cursor) devolvido na página anterior
+    @GetMapping("/busca")
+    public ResponseEntity<PaginaUsuarioDTO> buscaUsuarios(@RequestParam(value = "nome", required = false) String nome,
+                                                          @RequestParam(value = "cidade", required = false) String cidade,
+                                                          @RequestParam(value = "estado", required = false) String estado,
+                                                          @RequestParam(value = "ddd", required = false) String ddd,
+                                                          @RequestParam(value = "cursorNome", required = false) String cursorNome,
+                                                          @RequestParam(value = "cursor", defaultValue = "0") Long cursor,
+                                                          @RequestParam(value = "limite", defaultValue = "50") Integer limite) {
 
-        // Chama o service para buscar o usuário e retorna o DTO
-        return ResponseEntity.ok(usuarioService.buscarUsuarioPorEmail(email));
+        // Chama o service para buscar a página e retorna os resumos com o próximo cursor
+        return ResponseEntity.ok(usuarioService.buscaUsuarios(nome, cidade, estado, ddd, cursorNome, cursor, limite));
+    }
+
+    // Endpoint do feed de alterações: eventos de usuários, endereços e telefones em ordem, após o cursor
+    @GetMapping("/changes")
+    public ResponseEntity<PaginaAlteracaoDTO> buscaAlteracoes(@RequestParam(value = "since", defaultValue = "0") Long since,
+                                                              @RequestParam(value = "limite", defaultValue = "500") Integer limite) {
+
+        // Chama o service para buscar o lote e retorna as alterações com o cursor da próxima consulta
+        return ResponseEntity.ok(usuarioService.buscaAlteracoes(since, limite));
     }
 
     // Endpoint para deletar um usuário pelo email
@@ -65,30 +160,38 @@ public class UsuarioController {
     }
 
     // Endpoint para atualizar os dados do usuário autenticado
-    @PutMapping
+    @RequestMapping(method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<UsuarioDTO> atualizaDadosUsuario(@RequestBody UsuarioDTO usuarioDTO,
-                                                           @RequestHeader("Authorization") String token) {
+                                                           @RequestHeader("Authorization") String token,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        // Chama o service para atualizar os dados e retorna o DTO atualizado
-        return ResponseEntity.ok(usuarioService.atualizaDadosUsuario(token, usuarioDTO));
+        // Chama o service para atualizar os dados, respeitando o If-Match, e retorna o DTO atualizado
+        UsuarioDTO atualizado = usuarioService.atualizaDadosUsuario(token, usuarioDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(atualizado.getVersao())).body(atualizado);
     }
 
     // Endpoint para atualizar um endereço pelo ID
-    @PutMapping("/endereco")
+    @RequestMapping(value = "/endereco", method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<EnderecoDTO> atualizaDadosEndereco(@RequestBody EnderecoDTO enderecoDTO,
-                                                             @RequestParam("id") Long id) {
+                                                             @RequestParam("id") Long id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        // Chama o service para atualizar o endereço e retorna o DTO atualizado
-        return ResponseEntity.ok(usuarioService.atualizaDadosEndereco(id, enderecoDTO));
+        // Chama o service para atualizar o endereço, respeitando o If-Match com o ETag do perfil do usuário,
+        // e retorna o DTO atualizado com o novo ETag do perfil
+        EnderecoDTO atualizado = usuarioService.atualizaDadosEndereco(id, enderecoDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(atualizado.getVersao())).body(atualizado);
     }
 
     // Endpoint para atualizar um telefone pelo ID
-    @PutMapping("/telefone")
+    @RequestMapping(value = "/telefone", method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<TelefoneDTO> atualizaDadosTelefone(@RequestBody TelefoneDTO telefoneDTO,
-                                                             @RequestParam("id") Long id) {
+                                                             @RequestParam("id") Long id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        // Chama o service para atualizar o telefone e retorna o DTO atualizado
-        return ResponseEntity.ok(usuarioService.atualizaDadosTelefone(id, telefoneDTO));
+        // Chama o service para atualizar o telefone, respeitando o If-Match com o ETag do perfil do usuário,
+        // e retorna o DTO atualizado com o novo ETag do perfil
+        TelefoneDTO atualizado = usuarioService.atualizaDadosTelefone(id, telefoneDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(atualizado.getVersao())).body(atualizado);
     }
 
     // Endpoint para cadastrar um novo endereço para o usuário autenticado
@@ -108,4 +211,53 @@ public class UsuarioController {
         // Chama o service para cadastrar o telefone e retorna o DTO salvo
         return ResponseEntity.ok(usuarioService.cadastraNovoTelefone(token, telefoneDTO));
     }
+
+    // Endpoint para cadastrar vários endereços para o usuário autenticado em uma única requisição
+    @PostMapping("/endereco/batch")
+    public ResponseEntity<List<EnderecoDTO>> cadastraEnderecosEmLote(@RequestBody List<EnderecoDTO> enderecoDTOs,
+                                                                     @RequestHeader("Authorization") String token) {
+
+        // Chama o service para cadastrar os endereços e retorna os DTOs salvos com os ids
+        return ResponseEntity.ok(usuarioService.cadastraEnderecosEmLote(token, enderecoDTOs));
+    }
+
+    // Endpoint para cadastrar vários telefones para o usuário autenticado em uma única requisição
+    @PostMapping("/telefone/batch")
+    public ResponseEntity<List<TelefoneDTO>> cadastraTelefonesEmLote(@RequestBody List<TelefoneDTO> telefoneDTOs,
+                                                                     @RequestHeader("Authorization") String token) {
+
+        // Chama o service para cadastrar os telefones e retorna os DTOs salvos com os ids
+        return ResponseEntity.ok(usuarioService.cadastraTelefonesEmLote(token, telefoneDTOs));
+    }
+
+    // Monta o ETag forte a partir da versão do recurso
+    private static String etag(Long versao) {
+        return "\"" + (versao != null ? versao : 0L) + "\"";
+    }
+
+    // Verifica se o If-None-Match contém o ETag atual (aceita lista, "*" e ETags fracos)
+    private static boolean contemEtag(String ifNoneMatch, String etag) {
+        for (String valor : ifNoneMatch.split(",")) {
+            String candidato = valor.trim();
+            if (candidato.startsWith("W/")) {
+                candidato = candidato.substring(2);
+            }
+            if (candidato.equals("*") || candidato.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Extrai a versão esperada do If-Match; ausente ou "*" aceita qualquer versão
+    private static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(ifMatch.trim().replace("W/", "").replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match inválido.");
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package com.vssfullstack.usuario.infrastructure.cache;
+
+import com.vssfullstack.usuario.infrastructure.datasource.RoteadorDataSource;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
+import com.vssfullstack.usuario.infrastructure.security.TokenVersionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Lê periodicamente, em uma única consulta, os usuários alterados desde a última execução e repassa
+// o resultado ao mapa de versões de token e ao filtro de emails. Só existe quando um dos dois está
+// habilitado; caso contrário nenhuma consulta é agendada
+@Component
+@ConditionalOnExpression("${security.stateless.enabled:false} or ${bloom.email.enabled:false}")
+public class AtualizacaoIncremental {
+
+    // Margem aplicada à última atualização para tolerar diferenças de relógio entre instâncias
+    private static final Duration MARGEM_RELOGIO = Duration.ofSeconds(5);
+
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final TokenVersionService tokenVersionService;
+    private final EmailBloomFilter emailBloomFilter;
+
+    // Instante da última atualização
+    private volatile Instant ultimaAtualizacao = Instant.now();
+
+    public AtualizacaoIncremental(UsuarioJdbcRepository usuarioJdbcRepository,
+                                  TokenVersionService tokenVersionService,
+                                  EmailBloomFilter emailBloomFilter) {
+        this.usuarioJdbcRepository = usuarioJdbcRepository;
+        this.tokenVersionService = tokenVersionService;
+        this.emailBloomFilter = emailBloomFilter;
+    }
+
+    @Scheduled(fixedDelayString = "${usuario.alteracoes.refresh-interval:5s}")
+    public void atualiza() {
+        Instant agora = Instant.now();
+
+        // Recargas completas periódicas; as alterações da janela são aplicadas em seguida
+        tokenVersionService.recarregaSeNecessario(agora);
+        emailBloomFilter.reconstroiSeNecessario(agora);
+
+        // Lê do primário (pelo índice em versao_token_atualizada_em) para não perder alterações ainda
+        // não replicadas, já que a janela avança a cada execução
+        Instant desde = ultimaAtualizacao.minus(MARGEM_RELOGIO);
+        List<UsuarioJdbcRepository.VersaoTokenAlterada> alteradas =
+                RoteadorDataSource.noPrimario(() -> usuarioJdbcRepository.buscaVersoesTokenAlteradas(desde));
+        tokenVersionService.aplica(alteradas);
+        emailBloomFilter.aplica(alteradas);
+        ultimaAtualizacao = agora;
+    }
+}
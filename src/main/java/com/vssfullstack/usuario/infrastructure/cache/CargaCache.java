@@ -0,0 +1,48 @@
+package com.vssfullstack.usuario.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+// Carrega entradas de um AsyncCache fora do lock interno do mapa. A função de mapeamento apenas
+// registra um futuro vazio; a thread que o registrou consulta o banco e o completa, e as demais
+// aguardam o mesmo futuro. Nenhuma chamada JDBC roda dentro de um bloco synchronized, o que
+// prenderia a virtual thread à thread carrier no JDK 21, e uma invalidação feita durante a carga
+// remove o futuro, descartando o valor possivelmente desatualizado
+public final class CargaCache {
+
+    private CargaCache() {
+    }
+
+    // Retorna o valor do cache ou o carrega com o carregador informado
+    public static <K, V> V busca(AsyncCache<K, V> cache, K chave, Function<? super K, ? extends V> carregador) {
+        CompletableFuture<V> novo = new CompletableFuture<>();
+        CompletableFuture<V> futuro = cache.get(chave, (k, executor) -> novo);
+
+        // Só a thread cujo futuro foi registrado faz a carga
+        if (futuro == novo) {
+            try {
+                novo.complete(carregador.apply(chave));
+            } catch (RuntimeException | Error e) {
+                // O futuro com falha é removido do cache pelo próprio Caffeine
+                novo.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original do carregador (ex.: UsernameNotFoundException)
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.vssfullstack.usuario.infrastructure.cache;
+
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioResumoProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Filtro de Bloom em memória com os emails cadastrados, usado para responder
+// "certamente não existe" sem consultar o banco
+@Component
+public class EmailBloomFilter {
+
+    // Quantidade de usuários lidos por página na carga inicial
+    private static final int TAMANHO_PAGINA = 5000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final boolean habilitado;
+    private final double taxaFalsoPositivo;
+    private final long capacidadeMinima;
+    private final Duration intervaloReconstrucao;
+
+    // Filtro em uso (nulo até a primeira carga) e filtro sendo reconstruído
+    private volatile Filtro filtro;
+    private volatile Filtro emConstrucao;
+
+    // Instante da última reconstrução
+    private volatile Instant ultimaReconstrucao = Instant.now();
+
+    // Quantidade de consultas ao banco evitadas
+    private final LongAdder consultasEvitadas = new LongAdder();
+
+    public EmailBloomFilter(UsuarioRepository usuarioRepository,
+                            @Value("${bloom.email.enabled:false}") boolean habilitado,
+                            @Value("${bloom.email.fpp:0.01}") double taxaFalsoPositivo,
+                            @Value("${bloom.email.capacidade-minima:1000000}") long capacidadeMinima,
+                            @Value("${bloom.email.rebuild-interval:24h}") Duration intervaloReconstrucao) {
+        this.usuarioRepository = usuarioRepository;
+        this.habilitado = habilitado;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.capacidadeMinima = capacidadeMinima;
+        this.intervaloReconstrucao = intervaloReconstrucao;
+    }
+
+    // Retorna true apenas quando o email certamente não está cadastrado
+    public boolean isDefinitivamenteAusente(String email) {
+        Filtro atual = filtro;
+        if (!habilitado || atual == null || email == null) {
+            return false;
+        }
+        boolean ausente = !atual.contemTalvez(Usuario.normalizaEmail(email));
+        if (ausente) {
+            consultasEvitadas.increment();
+        }
+        return ausente;
+    }
+
+    // Registra um email cadastrado ou alterado
+    public void adiciona(String email) {
+        if (!habilitado || email == null) {
+            return;
+        }
+        String normalizado = Usuario.normalizaEmail(email);
+        Filtro atual = filtro;
+        if (atual != null) {
+            atual.adiciona(normalizado);
+        }
+        Filtro novo = emConstrucao;
+        if (novo != null) {
+            novo.adiciona(normalizado);
+        }
+    }
+
+    // Carrega o filtro após a subida da aplicação; até lá nenhuma consulta é evitada
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregaNaInicializacao() {
+        if (habilitado) {
+            reconstroi();
+        }
+    }
+
+    // Reconstrói periodicamente (exclusões não podem ser removidas de um filtro de Bloom) ou quando saturado
+    public void reconstroiSeNecessario(Instant agora) {
+        Filtro atual = filtro;
+        if (habilitado && atual != null
+                && (atual.isSaturado() || Duration.between(ultimaReconstrucao, agora).compareTo(intervaloReconstrucao) >= 0)) {
+            reconstroi();
+        }
+    }
+
+    // Adiciona os emails cadastrados ou alterados, incluindo os das outras instâncias
+    public void aplica(List<UsuarioJdbcRepository.VersaoTokenAlterada> alterados) {
+        Filtro atual = filtro;
+        if (!habilitado || atual == null) {
+            return;
+        }
+        for (UsuarioJdbcRepository.VersaoTokenAlterada alterado : alterados) {
+            if (!alterado.excluido()) {
+                atual.adiciona(Usuario.normalizaEmail(alterado.email()));
+            }
+        }
+    }
+
+    // Percorre a tabela por id e monta um novo filtro, substituindo o atual ao final
+    private synchronized void reconstroi() {
+        Instant inicio = Instant.now();
+        long capacidade = Math.max(capacidadeMinima, usuarioRepository.count() * 2);
+        Filtro novo = new Filtro(capacidade, taxaFalsoPositivo);
+        emConstrucao = novo;
+
+        long ultimoId = 0;
+        List<UsuarioResumoProjection> pagina;
+        while (!(pagina = usuarioRepository.findPaginaAposId(ultimoId, Limit.of(TAMANHO_PAGINA))).isEmpty()) {
+            pagina.forEach(u -> novo.adiciona(Usuario.normalizaEmail(u.getEmail())));
+            ultimoId = pagina.get(pagina.size() - 1).getId();
+        }
+
+        filtro = novo;
+        emConstrucao = null;
+        ultimaReconstrucao = inicio;
+    }
+
+    // Quantidade de consultas ao banco evitadas pelo filtro
+    public long getConsultasEvitadas() {
+        return consultasEvitadas.sum();
+    }
+
+    // Memória ocupada pelo vetor de bits, em bytes
+    public long getMemoriaBytes() {
+        Filtro atual = filtro;
+        return atual != null ? atual.numBits / 8 : 0;
+    }
+
+    // Quantidade de emails inseridos no filtro atual
+    public long getElementos() {
+        Filtro atual = filtro;
+        return atual != null ? atual.inseridos.sum() : 0;
+    }
+
+    // Vetor de bits com k funções de hash obtidas por hashing duplo
+    private static final class Filtro {
+
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+        private final long capacidade;
+        private final LongAdder inseridos = new LongAdder();
+
+        Filtro(long capacidade, double taxaFalsoPositivo) {
+            // m = -n ln(p) / (ln 2)^2 e k = (m / n) ln 2
+            long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+            this.numBits = Math.max(64, (m + 63) / 64 * 64);
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacidade * Math.log(2)));
+            this.capacidade = capacidade;
+            this.bits = new AtomicLongArray((int) (numBits / 64));
+        }
+
+        void adiciona(String email) {
+            long h1 = hash(email);
+            long h2 = misturaBits(h1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                int indice = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long atual;
+                while (((atual = bits.get(indice)) & mascara) == 0
+                        && !bits.compareAndSet(indice, atual, atual | mascara)) {
+                    // Repete até gravar o bit ou perceber que outra thread já o gravou
+                }
+            }
+            inseridos.increment();
+        }
+
+        boolean contemTalvez(String email) {
+            long h1 = hash(email);
+            long h2 = misturaBits(h1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isSaturado() {
+            return inseridos.sum() > capacidade;
+        }
+
+        // FNV-1a de 64 bits seguido da finalização do MurmurHash3
+        private static long hash(String valor) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return misturaBits(h);
+        }
+
+        private static long misturaBits(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93e53a20d8bL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
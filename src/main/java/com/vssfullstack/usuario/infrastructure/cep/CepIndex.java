@@ -0,0 +1,154 @@
+package com.vssfullstack.usuario.infrastructure.cep;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+// Índice local e compacto de CEP -> (cidade, estado), carregado de um arquivo
+// "cep;cidade;estado" e recarregado automaticamente quando o arquivo muda
+@Slf4j
+@Component
+public class CepIndex {
+
+    // Cidade e estado de um CEP
+    public record Localidade(String cidade, String estado) {
+    }
+
+    // Índice imutável: CEPs ordenados e, na mesma posição, o índice da localidade
+    private record Dados(int[] ceps, int[] localidades, Localidade[] tabela, FileTime modificadoEm) {
+    }
+
+    // Arquivo de referência; vazio desativa a validação
+    private final String arquivo;
+
+    // Índice em uso, substituído por inteiro a cada recarga
+    private volatile Dados dados;
+
+    public CepIndex(@Value("${cep.arquivo:}") String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    // Indica se há uma base de CEPs carregada
+    public boolean isDisponivel() {
+        return dados != null;
+    }
+
+    // Busca a localidade do CEP (com ou sem hífen) por busca binária
+    public Optional<Localidade> busca(String cep) {
+        Dados atual = dados;
+        int valor = paraNumero(cep);
+        if (atual == null || valor < 0) {
+            return Optional.empty();
+        }
+        int posicao = Arrays.binarySearch(atual.ceps(), valor);
+        return posicao >= 0 ? Optional.of(atual.tabela()[atual.localidades()[posicao]]) : Optional.empty();
+    }
+
+    // Converte o CEP em número de 8 dígitos, ou -1 se o formato for inválido
+    public static int paraNumero(String cep) {
+        if (cep == null) {
+            return -1;
+        }
+        int valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                valor = valor * 10 + (c - '0');
+                digitos++;
+            } else if (c != '-' && c != '.' && c != ' ') {
+                return -1;
+            }
+        }
+        return digitos == 8 ? valor : -1;
+    }
+
+    // Formata o CEP como 00000-000
+    public static String formata(int cep) {
+        String digitos = String.format("%08d", cep);
+        return digitos.substring(0, 5) + "-" + digitos.substring(5);
+    }
+
+    // Carrega a base após a subida da aplicação
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregaNaInicializacao() {
+        recarregaSeAlterado();
+    }
+
+    // Verifica periodicamente se o arquivo mudou e, nesse caso, recarrega o índice
+    @Scheduled(fixedDelayString = "${cep.reload-interval:1m}")
+    public void recarregaSeAlterado() {
+        if (arquivo.isBlank()) {
+            return;
+        }
+        Path caminho = Path.of(arquivo);
+        try {
+            FileTime modificadoEm = Files.getLastModifiedTime(caminho);
+            Dados atual = dados;
+            if (atual == null || !modificadoEm.equals(atual.modificadoEm())) {
+                dados = carrega(caminho, modificadoEm);
+                log.info("Base de CEPs carregada: {} CEPs de {}", dados.ceps().length, caminho);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Mantém o índice anterior se o novo arquivo não puder ser lido
+            log.warn("Falha ao carregar a base de CEPs de {}: {}", caminho, e.getMessage());
+        }
+    }
+
+    // Lê o arquivo e monta os vetores ordenados, reaproveitando as localidades repetidas
+    private Dados carrega(Path caminho, FileTime modificadoEm) throws IOException {
+        Map<Localidade, Integer> indices = new HashMap<>();
+        List<Localidade> tabela = new ArrayList<>();
+        long[] entradas = new long[1024];
+        int total = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(caminho, StandardCharsets.UTF_8)) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                String[] campos = linha.split(";", -1);
+                int cep = campos.length >= 3 ? paraNumero(campos[0]) : -1;
+                if (cep < 0) {
+                    continue;
+                }
+                Localidade localidade = new Localidade(campos[1].trim(), campos[2].trim().toUpperCase(Locale.ROOT));
+                Integer indice = indices.get(localidade);
+                if (indice == null) {
+                    indice = tabela.size();
+                    indices.put(localidade, indice);
+                    tabela.add(localidade);
+                }
+                if (total == entradas.length) {
+                    entradas = Arrays.copyOf(entradas, total * 2);
+                }
+                // Empacota CEP e localidade em um long para ordenar sem objetos intermediários
+                entradas[total++] = ((long) cep << 32) | indice;
+            }
+        }
+
+        Arrays.sort(entradas, 0, total);
+        int[] ceps = new int[total];
+        int[] localidades = new int[total];
+        for (int i = 0; i < total; i++) {
+            ceps[i] = (int) (entradas[i] >>> 32);
+            localidades[i] = (int) entradas[i];
+        }
+        return new Dados(ceps, localidades, tabela.toArray(new Localidade[0]), modificadoEm);
+    }
+}
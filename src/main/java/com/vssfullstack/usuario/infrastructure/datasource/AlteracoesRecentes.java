@@ -0,0 +1,48 @@
+package com.vssfullstack.usuario.infrastructure.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Emails criados ou alterados há pouco por esta instância. As cargas de cache desses emails leem
+// do primário, pois a réplica pode ainda não ter recebido a alteração e o valor antigo ficaria em
+// cache até expirar; as demais seguem o roteamento normal e vão para a réplica quando o atraso
+// medido é tolerável. A marca dura o atraso máximo tolerado mais o intervalo entre as medições,
+// o tempo após o qual a réplica certamente já aplicou a alteração ou deixou de ser usada
+@Component
+public class AlteracoesRecentes {
+
+    private final boolean replicaHabilitada;
+    private final Cache<String, Boolean> emails;
+
+    public AlteracoesRecentes(@Value("${datasource.replica.enabled:false}") boolean replicaHabilitada,
+                              @Value("${datasource.replica.max-lag:5s}") Duration atrasoMaximo,
+                              @Value("${datasource.replica.lag-check-interval:2s}") Duration intervaloMedicao,
+                              @Value("${datasource.replica.alteracoes-recentes.max-size:100000}") long maxSize) {
+        this.replicaHabilitada = replicaHabilitada;
+        this.emails = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(atrasoMaximo.plus(intervaloMedicao))
+                .build();
+    }
+
+    // Marca o email como alterado; chamado antes de invalidar os caches, para que a próxima carga já use o primário
+    public void marca(String email) {
+        if (replicaHabilitada && email != null) {
+            emails.put(Usuario.normalizaEmail(email), Boolean.TRUE);
+        }
+    }
+
+    // Executa a carga do email no primário se ele foi alterado há pouco, ou pelo roteamento normal
+    public <T> T carrega(String email, Supplier<T> carga) {
+        if (replicaHabilitada && emails.getIfPresent(Usuario.normalizaEmail(email)) != null) {
+            return RoteadorDataSource.noPrimario(carga);
+        }
+        return carga.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.vssfullstack.usuario.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Mede periodicamente o atraso de replicação e indica se a réplica pode atender leituras
+@Slf4j
+public class MonitorReplica {
+
+    // Atraso em segundos; zero quando a réplica já aplicou tudo o que recebeu ou não é um standby
+    private static final String CONSULTA_ATRASO = """
+            select case
+                     when not pg_is_in_recovery() then 0
+                     when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                     else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end
+            """;
+
+    private final JdbcTemplate replica;
+    private final double atrasoMaximoSegundos;
+
+    // Último atraso medido, negativo enquanto a réplica estiver inacessível
+    private volatile double atrasoSegundos = -1;
+
+    public MonitorReplica(DataSource replica, Duration atrasoMaximo, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+        Gauge.builder("usuario.datasource.replica.atraso", this, m -> m.atrasoSegundos)
+                .description("Atraso de replicação medido (negativo se inacessível)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Indica se a réplica respondeu e está dentro do atraso tolerado
+    public boolean isUtilizavel() {
+        double atraso = atrasoSegundos;
+        return atraso >= 0 && atraso <= atrasoMaximoSegundos;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:2s}")
+    public void mede() {
+        try {
+            Double atraso = replica.queryForObject(CONSULTA_ATRASO, Double.class);
+            atrasoSegundos = atraso != null ? atraso : 0;
+        } catch (RuntimeException e) {
+            if (atrasoSegundos >= 0) {
+                log.warn("Réplica indisponível, leituras voltam para o primário: {}", e.getMessage());
+            }
+            atrasoSegundos = -1;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.vssfullstack.usuario.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+// Envia transações somente leitura para a réplica e todo o resto para o primário.
+// Deve ficar atrás de um LazyConnectionDataSourceProxy para que a decisão seja tomada
+// no primeiro comando, quando o flag readOnly da transação já está definido
+public class RoteadorDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    // Marca a requisição HTTP que já escreveu, para que as leituras seguintes usem o primário.
+    // Só é definida dentro de uma requisição, cujo fim é tratado pelo filtro que a limpa; threads
+    // de tarefas agendadas nunca a recebem e por isso não a carregam de uma execução para outra
+    private static final ThreadLocal<Boolean> ESCREVEU = new ThreadLocal<>();
+
+    // Leituras que precisam do dado mais recente, como as cargas de versões de token
+    private static final ThreadLocal<Boolean> FORCA_PRIMARIO = new ThreadLocal<>();
+
+    private final MonitorReplica monitorReplica;
+    private final Counter leiturasPrimario;
+    private final Counter leiturasReplica;
+    private final Counter escritas;
+    private final Counter semTransacao;
+
+    public RoteadorDataSource(MonitorReplica monitorReplica, MeterRegistry meterRegistry) {
+        this.monitorReplica = monitorReplica;
+        this.leiturasPrimario = contador(meterRegistry, "primario", "leitura");
+        this.leiturasReplica = contador(meterRegistry, "replica", "leitura");
+        this.escritas = contador(meterRegistry, "primario", "escrita");
+        this.semTransacao = contador(meterRegistry, "primario", "sem-transacao");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        // Conexões fora de transação (inicialização, DDL, tarefas sem @Transactional) vão para o primário
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            semTransacao.increment();
+            return Destino.PRIMARIO;
+        }
+
+        // Transações de escrita vão para o primário e marcam a requisição
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (RequestContextHolder.getRequestAttributes() != null) {
+                ESCREVEU.set(Boolean.TRUE);
+            }
+            escritas.increment();
+            return Destino.PRIMARIO;
+        }
+
+        // Leitura após escrita na mesma requisição, leitura que exige o dado mais recente,
+        // ou réplica atrasada/indisponível: usa o primário
+        if (ESCREVEU.get() != null || FORCA_PRIMARIO.get() != null || !monitorReplica.isUtilizavel()) {
+            leiturasPrimario.increment();
+            return Destino.PRIMARIO;
+        }
+
+        leiturasReplica.increment();
+        return Destino.REPLICA;
+    }
+
+    // Executa a ação lendo sempre do primário. Usado pelas cargas de versões de token e pelas cargas
+    // de cache de emails alterados há pouco (AlteracoesRecentes): um valor lido de uma réplica
+    // atrasada logo após a invalidação ficaria em cache até expirar. Sem réplica configurada não tem efeito
+    public static <T> T noPrimario(Supplier<T> acao) {
+        Boolean anterior = FORCA_PRIMARIO.get();
+        FORCA_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return acao.get();
+        } finally {
+            if (anterior == null) {
+                FORCA_PRIMARIO.remove();
+            }
+        }
+    }
+
+    // Encerra a requisição atual, liberando as próximas leituras para a réplica
+    public static void limpaRequisicao() {
+        ESCREVEU.remove();
+    }
+
+    private static Counter contador(MeterRegistry registry, String destino, String tipo) {
+        return Counter.builder("usuario.datasource.roteamento")
+                .description("Conexões obtidas por destino e tipo de transação")
+                .tag("destino", destino)
+                .tag("tipo", tipo)
+                .register(registry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.vssfullstack.usuario.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+// Com datasource.replica.enabled=true, cria um pool para o primário (spring.datasource)
+// e outro para a réplica (datasource.replica) e roteia as conexões entre eles
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class RoteamentoDataSourceConfig {
+
+    // Pool do primário, com as mesmas propriedades spring.datasource.hikari.* de antes
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(@Value("${spring.datasource.url}") String url,
+                                               @Value("${spring.datasource.username}") String usuario,
+                                               @Value("${spring.datasource.password}") String senha) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(usuario);
+        dataSource.setPassword(senha);
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    // Pool da réplica, somente leitura
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username}") String usuario,
+                                              @Value("${datasource.replica.password}") String senha) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(usuario);
+        dataSource.setPassword(senha);
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(HikariDataSource replicaDataSource,
+                                         @Value("${datasource.replica.max-lag:5s}") Duration atrasoMaximo,
+                                         MeterRegistry meterRegistry) {
+        return new MonitorReplica(replicaDataSource, atrasoMaximo, meterRegistry);
+    }
+
+    // DataSource usado pelo JPA e pelo JdbcTemplate
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, HikariDataSource replicaDataSource,
+                                 MonitorReplica monitorReplica, MeterRegistry meterRegistry) {
+        RoteadorDataSource roteador = new RoteadorDataSource(monitorReplica, meterRegistry);
+        roteador.setTargetDataSources(Map.of(
+                RoteadorDataSource.Destino.PRIMARIO, primarioDataSource,
+                RoteadorDataSource.Destino.REPLICA, replicaDataSource));
+        roteador.setDefaultTargetDataSource(primarioDataSource);
+        roteador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteador);
+    }
+
+    // Libera a marca de leitura após escrita ao fim de cada requisição
+    @Bean
+    public OncePerRequestFilter leituraAposEscritaFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                            @NonNull FilterChain chain) throws ServletException, IOException {
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    RoteadorDataSource.limpaRequisicao();
+                }
+            }
+        };
+    }
+}
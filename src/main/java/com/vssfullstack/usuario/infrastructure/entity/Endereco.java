@@ -3,13 +3,20 @@ package com.vssfullstack.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "endereco")
+@DynamicUpdate
+@Table(name = "endereco", indexes = {
+        @Index(name = "idx_endereco_usuario_id", columnList = "usuario_id"),
+        @Index(name = "idx_endereco_estado_cidade", columnList = "estado, cidade"),
+        @Index(name = "idx_endereco_cidade", columnList = "cidade")
+})
 @Builder
 public class Endereco {
 
@@ -31,6 +38,10 @@ public class Endereco {
     private String cep;
     @Column(name = "usuario_id")
     private Long usuario_id;
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
 
 
 
@@ -0,0 +1,35 @@
+package com.vssfullstack.usuario.infrastructure.entity;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Registro de alteração gravado na mesma transação da mudança, lido pelo feed GET /usuario/changes.
+// As linhas são inseridas via JDBC; a entidade existe para o mapeamento da tabela
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "evento_outbox", indexes = @Index(name = "idx_evento_outbox_criado_em", columnList = "criado_em"))
+@Builder
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "entidade", length = 20, nullable = false)
+    private String entidade;
+    @Column(name = "operacao", length = 20, nullable = false)
+    private String operacao;
+    @Column(name = "entidade_id")
+    private Long entidadeId;
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+    @Column(name = "email", length = 100)
+    private String email;
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+}
@@ -3,13 +3,19 @@ package com.vssfullstack.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "telefone")
+@DynamicUpdate
+@Table(name = "telefone", indexes = {
+        @Index(name = "idx_telefone_usuario_id", columnList = "usuario_id"),
+        @Index(name = "idx_telefone_ddd_usuario_id", columnList = "ddd, usuario_id")
+})
 @Builder
 public class Telefone {
 
@@ -23,6 +29,10 @@ public class Telefone {
     private String ddd;
     @Column(name = "usuario_id")
     private Long usuario_id;
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
 
 
 }
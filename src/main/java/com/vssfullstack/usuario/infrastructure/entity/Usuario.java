@@ -4,21 +4,32 @@ package com.vssfullstack.usuario.infrastructure.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "usuario")
+@DynamicUpdate
+@SQLRestriction("excluido_em is null")
+@Table(name = "usuario", indexes = @Index(name = "idx_usuario_versao_token_atualizada_em", columnList = "versao_token_atualizada_em"))
 @Builder
 public class Usuario implements UserDetails {
 
+    // Nome do índice único do email (parcial, só usuários ativos, criado por IndicesAdicionais),
+    // usado para identificar a violação ao salvar
+    public static final String UK_EMAIL = "uk_usuario_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,16 +39,47 @@ public class Usuario implements UserDetails {
     private String email;
     @Column(name = "senha")
     private String senha;
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+    @Column(name = "versao_token")
+    private Long versaoToken;
+    @Column(name = "versao_token_atualizada_em")
+    private Instant versaoTokenAtualizadaEm;
+    @Column(name = "excluido_em")
+    private Instant excluidoEm;
 
+    // Ordenados pelo id, como na leitura direta do JSON, para que as duas saídas sejam idênticas
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id")
+    @OrderBy("id")
     private List<Endereco> enderecos;
 
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id")
+    @OrderBy("id")
     private List<Telefone> telefones;
 
 
+    // Normaliza o email (sem espaços e em minúsculas) para que as buscas usem o índice único
+    public static String normalizaEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Garante que o email seja sempre gravado normalizado
+    @PrePersist
+    @PreUpdate
+    void normalizaEmail() {
+        this.email = normalizaEmail(email);
+    }
+
+    // Incrementa a versão do token, invalidando todos os tokens já emitidos para o usuário
+    public void incrementaVersaoToken() {
+        this.versaoToken = (versaoToken != null ? versaoToken : 0L) + 1;
+        this.versaoTokenAtualizadaEm = Instant.now();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of();
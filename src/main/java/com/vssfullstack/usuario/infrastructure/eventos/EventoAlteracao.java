@@ -0,0 +1,16 @@
+package com.vssfullstack.usuario.infrastructure.eventos;
+
+import java.time.Instant;
+
+// Alteração confirmada em um usuário, endereço ou telefone
+public record EventoAlteracao(Entidade entidade, Operacao operacao, Long id, Long usuarioId, String email,
+                              Instant instante) {
+
+    public enum Entidade { USUARIO, ENDERECO, TELEFONE }
+
+    public enum Operacao { CRIACAO, ATUALIZACAO, EXCLUSAO }
+
+    public static EventoAlteracao de(Entidade entidade, Operacao operacao, Long id, Long usuarioId, String email) {
+        return new EventoAlteracao(entidade, operacao, id, usuarioId, email, Instant.now());
+    }
+}
@@ -0,0 +1,302 @@
+package com.vssfullstack.usuario.infrastructure.eventos;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Log local, somente de acréscimo, dos eventos de alteração de usuários.
+// As requisições apenas enfileiram o evento em um buffer circular limitado (descartando se cheio);
+// uma thread em segundo plano grava os eventos em lote (group commit) em segmentos NDJSON
+@Slf4j
+@Component
+public class LogEventosAlteracao implements DisposableBean {
+
+    // Política de sincronização do arquivo com o disco
+    public enum Fsync { SEMPRE, INTERVALO, NUNCA }
+
+    // Linha gravada no log: o evento com o número de sequência atribuído pela thread de escrita
+    record Registro(long seq, EventoAlteracao.Entidade entidade, EventoAlteracao.Operacao operacao,
+                    Long id, Long usuarioId, String email, Instant instante) {
+    }
+
+    private static final String PREFIXO = "eventos-";
+    private static final String SUFIXO = ".log";
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final int tamanhoLote;
+    private final long tamanhoSegmento;
+    private final Fsync fsync;
+    private final long intervaloFsyncNanos;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<EventoAlteracao> fila;
+    private final Thread escritor;
+    private volatile boolean executando = true;
+
+    // Estado da thread de escrita
+    private FileChannel segmento;
+    private long tamanhoAtual;
+    private long proximaSequencia = 1;
+    private long ultimoFsync = System.nanoTime();
+
+    // Métricas
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+
+    public LogEventosAlteracao(ObjectMapper objectMapper,
+                               @Value("${eventos.log.enabled:false}") boolean habilitado,
+                               @Value("${eventos.log.diretorio:eventos}") Path diretorio,
+                               @Value("${eventos.log.capacidade:65536}") int capacidade,
+                               @Value("${eventos.log.tamanho-lote:1024}") int tamanhoLote,
+                               @Value("${eventos.log.tamanho-segmento:67108864}") long tamanhoSegmento,
+                               @Value("${eventos.log.fsync:INTERVALO}") Fsync fsync,
+                               @Value("${eventos.log.fsync-intervalo:1s}") Duration intervaloFsync) {
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+        this.diretorio = diretorio;
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.fsync = fsync;
+        this.intervaloFsyncNanos = intervaloFsync.toNanos();
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.escritor = new Thread(this::executa, "log-eventos");
+        this.escritor.setDaemon(true);
+        if (habilitado) {
+            abreUltimoSegmento();
+            escritor.start();
+        }
+    }
+
+    // Enfileira o evento sem bloquear; com o buffer cheio, o evento é descartado e contado
+    public void publica(EventoAlteracao evento) {
+        if (habilitado && !fila.offer(evento)) {
+            descartados.increment();
+        }
+    }
+
+    // Laço da thread de escrita: espera o primeiro evento e grava junto tudo o que já estiver na fila
+    private void executa() {
+        List<EventoAlteracao> lote = new ArrayList<>(tamanhoLote);
+        while (executando || !fila.isEmpty()) {
+            try {
+                EventoAlteracao primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro != null) {
+                    lote.add(primeiro);
+                    fila.drainTo(lote, tamanhoLote - 1);
+                    grava(lote);
+                    lote.clear();
+                }
+                sincronizaPorIntervalo();
+            } catch (InterruptedException e) {
+                executando = false;
+            } catch (IOException | RuntimeException e) {
+                log.error("Falha ao gravar {} eventos de alteração", lote.size(), e);
+                lote.clear();
+            }
+        }
+        fecha();
+    }
+
+    // Grava o lote com uma única escrita no segmento atual
+    private void grava(List<EventoAlteracao> lote) throws IOException {
+        if (tamanhoAtual >= tamanhoSegmento) {
+            rotaciona();
+        }
+
+        // As sequências só são consumidas depois da escrita: um lote que falha não deixa lacunas
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(lote.size() * 160);
+        long sequencia = proximaSequencia;
+        for (EventoAlteracao e : lote) {
+            buffer.writeBytes(objectMapper.writeValueAsBytes(new Registro(sequencia++, e.entidade(), e.operacao(),
+                    e.id(), e.usuarioId(), e.email(), e.instante())));
+            buffer.write('\n');
+        }
+        escreve(ByteBuffer.wrap(buffer.toByteArray()));
+        proximaSequencia = sequencia;
+
+        if (fsync == Fsync.SEMPRE) {
+            sincroniza();
+        }
+        escritos.add(lote.size());
+        lotes.increment();
+    }
+
+    // Escreve todo o buffer; se a escrita falhar no meio, descarta o trecho parcial para que o
+    // lote possa ser repetido com as mesmas sequências sem deixar uma linha cortada no segmento
+    private void escreve(ByteBuffer bytes) throws IOException {
+        long inicio = tamanhoAtual;
+        try {
+            while (bytes.hasRemaining()) {
+                tamanhoAtual += segmento.write(bytes);
+            }
+        } catch (IOException e) {
+            try {
+                segmento.truncate(inicio);
+                tamanhoAtual = inicio;
+            } catch (IOException falhaTruncar) {
+                e.addSuppressed(falhaTruncar);
+            }
+            throw e;
+        }
+    }
+
+    private void sincronizaPorIntervalo() throws IOException {
+        if (fsync == Fsync.INTERVALO && System.nanoTime() - ultimoFsync >= intervaloFsyncNanos) {
+            sincroniza();
+        }
+    }
+
+    private void sincroniza() throws IOException {
+        segmento.force(false);
+        ultimoFsync = System.nanoTime();
+    }
+
+    // Abre um novo segmento, nomeado pela sequência do seu primeiro evento, e só então fecha o atual.
+    // Se a abertura falhar, o segmento atual continua em uso e a rotação é tentada no próximo lote
+    private void rotaciona() throws IOException {
+        if (fsync != Fsync.NUNCA) {
+            sincroniza();
+        }
+        FileChannel novo = FileChannel.open(diretorio.resolve(String.format("%s%020d%s", PREFIXO, proximaSequencia, SUFIXO)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        long tamanhoNovo;
+        try {
+            tamanhoNovo = novo.size();
+        } catch (IOException e) {
+            novo.close();
+            throw e;
+        }
+        FileChannel anterior = segmento;
+        segmento = novo;
+        tamanhoAtual = tamanhoNovo;
+        try {
+            anterior.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o segmento anterior do log de eventos", e);
+        }
+    }
+
+    // Continua o último segmento existente, recuperando a próxima sequência da sua última linha
+    private void abreUltimoSegmento() {
+        try {
+            Files.createDirectories(diretorio);
+            Optional<Path> ultimo;
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                ultimo = arquivos
+                        .filter(p -> p.getFileName().toString().startsWith(PREFIXO) && p.getFileName().toString().endsWith(SUFIXO))
+                        .max(Path::compareTo);
+            }
+            if (ultimo.isPresent()) {
+                proximaSequencia = ultimaSequencia(ultimo.get()) + 1;
+                abreSegmento(ultimo.get());
+                terminaLinhaIncompleta(ultimo.get());
+            } else {
+                abreSegmento(diretorio.resolve(String.format("%s%020d%s", PREFIXO, proximaSequencia, SUFIXO)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o log de eventos em " + diretorio, e);
+        }
+    }
+
+    private void abreSegmento(Path arquivo) throws IOException {
+        segmento = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        tamanhoAtual = segmento.size();
+    }
+
+    // Encerra com quebra de linha um registro cortado por uma queda, para não emendá-lo no próximo
+    private void terminaLinhaIncompleta(Path arquivo) throws IOException {
+        if (tamanhoAtual == 0) {
+            return;
+        }
+        ByteBuffer ultimoByte = ByteBuffer.allocate(1);
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            leitura.read(ultimoByte, tamanhoAtual - 1);
+        }
+        if (ultimoByte.get(0) != '\n') {
+            tamanhoAtual += segmento.write(ByteBuffer.wrap(new byte[]{'\n'}));
+        }
+    }
+
+    // Lê a sequência da última linha completa do segmento; o nome do arquivo é usado se estiver vazio
+    private long ultimaSequencia(Path arquivo) throws IOException {
+        long ultima = Long.parseLong(arquivo.getFileName().toString()
+                .substring(PREFIXO.length(), arquivo.getFileName().toString().length() - SUFIXO.length())) - 1;
+        try (Stream<String> linhas = Files.lines(arquivo, StandardCharsets.UTF_8)) {
+            for (String linha : (Iterable<String>) linhas::iterator) {
+                try {
+                    JsonNode registro = objectMapper.readTree(linha);
+                    ultima = registro.get("seq").asLong();
+                } catch (RuntimeException e) {
+                    // Linha incompleta de uma queda durante a escrita
+                    log.warn("Linha inválida ignorada no log de eventos {}", arquivo);
+                }
+            }
+        }
+        return ultima;
+    }
+
+    private void fecha() {
+        try {
+            if (segmento != null && segmento.isOpen()) {
+                if (fsync != Fsync.NUNCA) {
+                    sincroniza();
+                }
+                segmento.close();
+            }
+        } catch (IOException e) {
+            log.error("Falha ao fechar o log de eventos", e);
+        }
+    }
+
+    // Esvazia a fila e fecha o segmento no encerramento da aplicação
+    @Override
+    public void destroy() throws InterruptedException {
+        executando = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Eventos aguardando gravação
+    public int getPendentes() {
+        return fila.size();
+    }
+
+    // Eventos gravados no log
+    public long getEscritos() {
+        return escritos.sum();
+    }
+
+    // Eventos descartados por buffer cheio
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    // Escritas em lote realizadas
+    public long getLotes() {
+        return lotes.sum();
+    }
+}
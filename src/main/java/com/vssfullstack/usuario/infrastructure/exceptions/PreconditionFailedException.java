@@ -0,0 +1,9 @@
+package com.vssfullstack.usuario.infrastructure.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String mensagem) {
+        super(mensagem);
+    }
+
+}
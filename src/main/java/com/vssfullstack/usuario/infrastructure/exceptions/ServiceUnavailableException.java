@@ -0,0 +1,16 @@
+package com.vssfullstack.usuario.infrastructure.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Tempo sugerido ao cliente, em segundos, antes de tentar novamente
+    private final long retryAfter;
+
+    public ServiceUnavailableException(String mensagem, long retryAfter) {
+        super(mensagem);
+        this.retryAfter = retryAfter;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.vssfullstack.usuario.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Registra quantos comandos SQL cada endpoint executou, por requisição.
+// Roda antes do filtro de segurança para contar também a carga do usuário autenticado
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConsultasPorRequisicaoFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
+            throws ServletException, IOException {
+        ContadorConsultas.inicia();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int consultas = ContadorConsultas.finaliza();
+
+            // Usa o padrão da rota para não criar uma série por valor de parâmetro
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("usuario.db.consultas")
+                    .description("Comandos SQL executados pelo Hibernate por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(consultas);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vssfullstack.usuario.infrastructure.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Conta os comandos SQL emitidos pelo Hibernate na thread da requisição atual.
+// Registrado em spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    // Começa a contagem para a requisição atual
+    static void inicia() {
+        CONTADOR.set(new int[1]);
+    }
+
+    // Encerra a contagem e retorna a quantidade de comandos da requisição
+    static int finaliza() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador != null ? contador[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+}
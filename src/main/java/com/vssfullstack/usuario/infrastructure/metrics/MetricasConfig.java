@@ -0,0 +1,106 @@
+package com.vssfullstack.usuario.infrastructure.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vssfullstack.usuario.business.UsuarioCache;
+import com.vssfullstack.usuario.infrastructure.cache.EmailBloomFilter;
+import com.vssfullstack.usuario.infrastructure.eventos.LogEventosAlteracao;
+import com.vssfullstack.usuario.infrastructure.security.BoundedPasswordEncoder;
+import com.vssfullstack.usuario.infrastructure.security.JwtUtil;
+import com.vssfullstack.usuario.infrastructure.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Expõe no actuator os contadores já mantidos pelos componentes de segurança e cache
+@Configuration
+public class MetricasConfig {
+
+    // Tempo de hash, fila e rejeições do pool de BCrypt
+    @Bean
+    public MeterBinder metricasSenha(BoundedPasswordEncoder passwordEncoder) {
+        return registry -> {
+            FunctionTimer.builder("usuario.senha.hash", passwordEncoder,
+                            BoundedPasswordEncoder::getHashCount,
+                            BoundedPasswordEncoder::getHashTotalTimeNanos,
+                            TimeUnit.NANOSECONDS)
+                    .description("Hashes BCrypt executados e tempo total")
+                    .register(registry);
+            Gauge.builder("usuario.senha.fila", passwordEncoder, BoundedPasswordEncoder::getQueueDepth)
+                    .description("Hashes aguardando na fila")
+                    .register(registry);
+            FunctionCounter.builder("usuario.senha.rejeitados", passwordEncoder, BoundedPasswordEncoder::getRejectedCount)
+                    .description("Requisições rejeitadas com 503 por fila cheia")
+                    .register(registry);
+        };
+    }
+
+    // Acertos, falhas e remoções dos caches Caffeine, com os nomes padrão do Micrometer
+    @Bean
+    public MeterBinder metricasCaches(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService, UsuarioCache usuarioCache) {
+        return registry -> {
+            registraCache(registry, "jwt", jwtUtil, JwtUtil::tokenCacheStats);
+            registraCache(registry, "principal", userDetailsService, UserDetailsServiceImpl::cacheStats);
+            registraCache(registry, "usuario", usuarioCache, UsuarioCache::stats);
+            Gauge.builder("usuario.cache.memoria", usuarioCache, UsuarioCache::getMemoriaBytes)
+                    .description("Memória estimada do cache de usuários")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    // Tamanho e efetividade do filtro de Bloom de emails
+    @Bean
+    public MeterBinder metricasBloom(EmailBloomFilter emailBloomFilter) {
+        return registry -> {
+            FunctionCounter.builder("usuario.bloom.consultas.evitadas", emailBloomFilter, EmailBloomFilter::getConsultasEvitadas)
+                    .description("Consultas ao banco evitadas pelo filtro")
+                    .register(registry);
+            Gauge.builder("usuario.bloom.elementos", emailBloomFilter, EmailBloomFilter::getElementos)
+                    .register(registry);
+            Gauge.builder("usuario.bloom.memoria", emailBloomFilter, EmailBloomFilter::getMemoriaBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    // Fila, gravações e descartes do log de eventos de alteração
+    @Bean
+    public MeterBinder metricasLogEventos(LogEventosAlteracao logEventosAlteracao) {
+        return registry -> {
+            Gauge.builder("usuario.eventos.pendentes", logEventosAlteracao, LogEventosAlteracao::getPendentes)
+                    .description("Eventos aguardando gravação no log")
+                    .register(registry);
+            FunctionCounter.builder("usuario.eventos.gravados", logEventosAlteracao, LogEventosAlteracao::getEscritos)
+                    .register(registry);
+            FunctionCounter.builder("usuario.eventos.descartados", logEventosAlteracao, LogEventosAlteracao::getDescartados)
+                    .description("Eventos descartados por buffer cheio")
+                    .register(registry);
+            FunctionCounter.builder("usuario.eventos.lotes", logEventosAlteracao, LogEventosAlteracao::getLotes)
+                    .description("Escritas em lote no log")
+                    .register(registry);
+        };
+    }
+
+    // O Micrometer guarda o objeto de estado por referência fraca: o estado é o próprio bean, mantido
+    // pelo contexto, e não uma referência de método que o coletor poderia descartar
+    private static <T> void registraCache(MeterRegistry registry, String nome, T dono, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", dono, d -> stats.apply(d).hitCount())
+                .tag("cache", nome)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", dono, d -> stats.apply(d).missCount())
+                .tag("cache", nome)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", dono, d -> stats.apply(d).evictionCount())
+                .tag("cache", nome)
+                .register(registry);
+    }
+}
@@ -3,9 +3,23 @@ package com.vssfullstack.usuario.infrastructure.repository;
 
 import com.vssfullstack.usuario.infrastructure.entity.Endereco;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
 
+    @Transactional(readOnly = true)
+    @Query("select e from Endereco e where e.usuario_id in :usuarioIds order by e.id")
+    List<Endereco> findByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    @Modifying
+    @Query("delete from Endereco e where e.usuario_id in :usuarioIds")
+    int deleteByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
 }
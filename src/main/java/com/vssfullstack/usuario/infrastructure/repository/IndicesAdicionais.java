@@ -0,0 +1,53 @@
+package com.vssfullstack.usuario.infrastructure.repository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Cria os índices que o mapeamento JPA não consegue declarar (parciais ou com classe de operador),
+// depois que o Hibernate já criou ou atualizou as tabelas. Todos os comandos são idempotentes
+@Component
+@DependsOn("entityManagerFactory")
+public class IndicesAdicionais implements InitializingBean {
+
+    // Email único apenas entre os usuários ativos: um usuário excluído logicamente, ainda não
+    // expurgado, não impede um novo cadastro com o mesmo email. Substitui a constraint única
+    // criada em versões anteriores, na mesma transação para não haver janela sem unicidade
+    private static final String EMAIL_UNICO_ATIVOS = """
+            DO $$
+            BEGIN
+                IF EXISTS (SELECT 1 FROM pg_constraint
+                           WHERE conname = 'uk_usuario_email' AND conrelid = 'usuario'::regclass) THEN
+                    ALTER TABLE usuario DROP CONSTRAINT uk_usuario_email;
+                END IF;
+                CREATE UNIQUE INDEX IF NOT EXISTS uk_usuario_email ON usuario (email) WHERE excluido_em IS NULL;
+            END $$
+            """;
+
+    // Usuários pendentes de expurgo, lidos em ordem de id a cada execução do expurgo
+    private static final String USUARIOS_EXCLUIDOS =
+            "CREATE INDEX IF NOT EXISTS idx_usuario_excluido ON usuario (id) WHERE excluido_em IS NOT NULL";
+
+    // Prefixo do nome na busca (nome collate "C" like 'x%'), paginado por (nome, id). Com collation
+    // diferente de "C" um índice btree comum não atende o LIKE; na collation "C" o mesmo índice atende
+    // o LIKE por faixa e devolve as linhas já na ordem do cursor composto, sem ordenar todas as que
+    // casam com o prefixo (o que varchar_pattern_ops não permite). Substitui os índices de versões anteriores
+    private static final String NOME_PREFIXO =
+            "CREATE INDEX IF NOT EXISTS idx_usuario_nome_c ON usuario (nome COLLATE \"C\", id)";
+    private static final String NOMES_ANTIGOS = "DROP INDEX IF EXISTS idx_usuario_nome_id, idx_usuario_nome_prefixo";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IndicesAdicionais(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute(EMAIL_UNICO_ATIVOS);
+        jdbcTemplate.execute(USUARIOS_EXCLUIDOS);
+        jdbcTemplate.execute(NOME_PREFIXO);
+        jdbcTemplate.execute(NOMES_ANTIGOS);
+    }
+}
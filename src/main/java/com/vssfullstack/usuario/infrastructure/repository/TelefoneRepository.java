@@ -3,11 +3,23 @@ package com.vssfullstack.usuario.infrastructure.repository;
 
 import com.vssfullstack.usuario.infrastructure.entity.Telefone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TelefoneRepository extends JpaRepository<Telefone, Long> {
 
+    @Transactional(readOnly = true)
+    @Query("select t from Telefone t where t.usuario_id in :usuarioIds order by t.id")
+    List<Telefone> findByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
 
-
+    @Modifying
+    @Query("delete from Telefone t where t.usuario_id in :usuarioIds")
+    int deleteByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
 }
@@ -0,0 +1,104 @@
+package com.vssfullstack.usuario.infrastructure.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Busca de usuários com filtros opcionais e paginação keyset, montando a consulta apenas com os
+// filtros informados para que os índices sejam usados. Com o prefixo do nome, pagina por (nome, id)
+// na collation "C", a ordem do índice idx_usuario_nome_c: cada página lê só as linhas que devolve,
+// mesmo em prefixos amplos. Nos demais filtros pagina por id
+@Repository
+public class UsuarioBuscaRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Filtros opcionais da busca; valores nulos são ignorados
+    public record Filtro(String nomePrefixo, String cidade, String estado, String ddd) {
+    }
+
+    // Retorna até "limite" usuários após o cursor: (cursorNome, cursor) com o prefixo do nome, ou
+    // apenas o id nos demais casos. Na primeira página do prefixo do nome, cursorNome é nulo
+    public List<UsuarioResumoProjection> busca(Filtro filtro, String cursorNome, long cursor, int limite) {
+
+        StringBuilder sql = new StringBuilder(
+                "select u.id as id, u.nome as nome, u.email as email from usuario u where u.excluido_em is null");
+        Map<String, Object> parametros = new HashMap<>();
+
+        // Prefixo do nome, escapando os curingas do LIKE, com o cursor composto (nome, id)
+        boolean porNome = filtro.nomePrefixo() != null;
+        if (porNome) {
+            sql.append(" and u.nome collate \"C\" like :nome escape '\\'");
+            parametros.put("nome", filtro.nomePrefixo()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            if (cursorNome != null) {
+                sql.append(" and (u.nome collate \"C\", u.id) > (cast(:cursorNome as varchar), :cursor)");
+                parametros.put("cursorNome", cursorNome);
+                parametros.put("cursor", cursor);
+            }
+        } else {
+            sql.append(" and u.id > :cursor");
+            parametros.put("cursor", cursor);
+        }
+
+        // Cidade e estado, resolvidos por semi-join no índice de endereço
+        if (filtro.cidade() != null || filtro.estado() != null) {
+            sql.append(" and exists (select 1 from endereco e where e.usuario_id = u.id");
+            if (filtro.estado() != null) {
+                sql.append(" and e.estado = :estado");
+                parametros.put("estado", filtro.estado());
+            }
+            if (filtro.cidade() != null) {
+                sql.append(" and e.cidade = :cidade");
+                parametros.put("cidade", filtro.cidade());
+            }
+            sql.append(")");
+        }
+
+        // DDD, resolvido por semi-join no índice de telefone
+        if (filtro.ddd() != null) {
+            sql.append(" and exists (select 1 from telefone t where t.usuario_id = u.id and t.ddd = :ddd)");
+            parametros.put("ddd", filtro.ddd());
+        }
+
+        sql.append(porNome ? " order by u.nome collate \"C\", u.id" : " order by u.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Tuple.class);
+        parametros.forEach(query::setParameter);
+        query.setMaxResults(limite);
+
+        // Converte cada linha na projeção usada pelo restante do serviço
+        @SuppressWarnings("unchecked")
+        List<Tuple> linhas = query.getResultList();
+        return linhas.stream()
+                .map(tupla -> (UsuarioResumoProjection) new Resumo(
+                        tupla.get("id", Long.class), tupla.get("nome", String.class), tupla.get("email", String.class)))
+                .toList();
+    }
+
+    // Implementação simples da projeção a partir da tupla
+    private record Resumo(Long id, String nome, String email) implements UsuarioResumoProjection {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.vssfullstack.usuario.infrastructure.repository;
+
+import com.vssfullstack.usuario.infrastructure.entity.Endereco;
+import com.vssfullstack.usuario.infrastructure.entity.EventoOutbox;
+import com.vssfullstack.usuario.infrastructure.entity.Telefone;
+import com.vssfullstack.usuario.infrastructure.entity.Usuario;
+import com.vssfullstack.usuario.infrastructure.eventos.EventoAlteracao;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// Escritas em lote e leituras diretas via JDBC, fora do contexto de persistência do JPA
+@Repository
+@RequiredArgsConstructor
+public class UsuarioJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Reserva de uma só vez os próximos ids da sequência da coluna identity da tabela (usuario, endereco ou telefone)
+    public List<Long> reservaIds(String tabela, int quantidade) {
+        return jdbcTemplate.queryForList(
+                "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)",
+                Long.class, tabela, quantidade);
+    }
+
+    // Insere usuários já com id atribuído usando batch JDBC
+    public void insereUsuarios(List<Usuario> usuarios) {
+        jdbcTemplate.batchUpdate(
+                "insert into usuario (id, nome, email, senha, versao_token, versao_token_atualizada_em) values (?, ?, ?, ?, ?, ?)",
+                usuarios.stream().map(u -> new Object[]{
+                        u.getId(), u.getNome(), u.getEmail(), u.getSenha(), u.getVersaoToken(),
+                        u.getVersaoTokenAtualizadaEm() != null ? Timestamp.from(u.getVersaoTokenAtualizadaEm()) : null
+                }).toList());
+    }
+
+    // Insere endereços já com id atribuído usando batch JDBC
+    public void insereEnderecos(List<Endereco> enderecos) {
+        jdbcTemplate.batchUpdate(
+                "insert into endereco (id, rua, numero, complemento, cidade, estado, cep, usuario_id) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                enderecos.stream().map(e -> new Object[]{
+                        e.getId(), e.getRua(), e.getNumero(), e.getComplemento(), e.getCidade(), e.getEstado(), e.getCep(), e.getUsuario_id()
+                }).toList());
+    }
+
+    // Insere telefones já com id atribuído usando batch JDBC
+    public void insereTelefones(List<Telefone> telefones) {
+        jdbcTemplate.batchUpdate(
+                "insert into telefone (id, numero, ddd, usuario_id) values (?, ?, ?, ?)",
+                telefones.stream().map(t -> new Object[]{
+                        t.getId(), t.getNumero(), t.getDdd(), t.getUsuario_id()
+                }).toList());
+    }
+
+    // Colunas do usuário usadas na resposta JSON direta
+    public record UsuarioLinha(long id, String nome, String email, long versao) {
+    }
+
+    // Busca apenas as colunas do usuário exibidas no GET /usuario
+    public Optional<UsuarioLinha> buscaUsuarioLinha(String email) {
+        return jdbcTemplate.query(
+                "select id, nome, email, versao from usuario where email = ? and excluido_em is null",
+                rs -> rs.next()
+                        ? Optional.of(new UsuarioLinha(rs.getLong("id"), rs.getString("nome"), rs.getString("email"), rs.getLong("versao")))
+                        : Optional.empty(),
+                email);
+    }
+
+    // Entrega cada endereço do usuário ao handler, sem montar entidades
+    public void percorreEnderecos(long usuarioId, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+                "select id, rua, numero, complemento, cidade, estado, cep from endereco where usuario_id = ? order by id",
+                handler, usuarioId);
+    }
+
+    // Entrega cada telefone do usuário ao handler, sem montar entidades
+    public void percorreTelefones(long usuarioId, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+                "select id, numero, ddd from telefone where usuario_id = ? order by id",
+                handler, usuarioId);
+    }
+
+    // Versão do token de um usuário alterada na janela consultada; excluido indica que os tokens foram revogados
+    public record VersaoTokenAlterada(String email, Long versaoToken, boolean excluido) {
+    }
+
+    // Versões de token alteradas após o instante informado, em ordem cronológica. Inclui os usuários
+    // excluídos logicamente e, pela outbox, os excluídos fisicamente, cuja linha já não existe
+    public List<VersaoTokenAlterada> buscaVersoesTokenAlteradas(Instant desde) {
+        return jdbcTemplate.query(
+                "select email, versao_token, excluido, instante from ("
+                        + " select email, versao_token, excluido_em is not null as excluido, versao_token_atualizada_em as instante"
+                        + " from usuario where versao_token_atualizada_em > ?"
+                        + " union all"
+                        + " select email, null, true, criado_em from evento_outbox"
+                        + " where entidade = 'USUARIO' and operacao = 'EXCLUSAO' and criado_em > ?"
+                        + ") alteracoes order by instante",
+                (rs, i) -> new VersaoTokenAlterada(
+                        rs.getString("email"), rs.getObject("versao_token", Long.class), rs.getBoolean("excluido")),
+                Timestamp.from(desde), Timestamp.from(desde));
+    }
+
+    // Grava os eventos na outbox com batch JDBC, na transação da alteração. O instante vem do relógio
+    // do banco no momento do insert, a mesma referência usada pelo feed para esperar commits atrasados
+    public void insereEventosOutbox(List<EventoAlteracao> eventos) {
+        jdbcTemplate.batchUpdate(
+                "insert into evento_outbox (entidade, operacao, entidade_id, usuario_id, email, criado_em) values (?, ?, ?, ?, ?, clock_timestamp())",
+                eventos.stream().map(e -> new Object[]{
+                        e.entidade().name(), e.operacao().name(), e.id(), e.usuarioId(), e.email()
+                }).toList());
+    }
+
+    // Busca, em ordem de id, os eventos após o cursor gravados há pelo menos o atraso informado
+    public List<EventoOutbox> buscaEventosOutbox(long cursor, long atrasoMillis, int limite) {
+        return jdbcTemplate.query(
+                "select id, entidade, operacao, entidade_id, usuario_id, email, criado_em from evento_outbox"
+                        + " where id > ? and criado_em <= clock_timestamp() - make_interval(secs => ?) order by id limit ?",
+                (rs, i) -> EventoOutbox.builder()
+                        .id(rs.getLong("id"))
+                        .entidade(rs.getString("entidade"))
+                        .operacao(rs.getString("operacao"))
+                        .entidadeId(rs.getObject("entidade_id", Long.class))
+                        .usuarioId(rs.getObject("usuario_id", Long.class))
+                        .email(rs.getString("email"))
+                        .criadoEm(rs.getTimestamp("criado_em").toInstant())
+                        .build(),
+                cursor, atrasoMillis / 1000.0, limite);
+    }
+
+    // Remove um lote dos eventos mais antigos que o limite informado
+    public int excluiEventosOutboxAntesDe(Instant limite, int tamanhoLote) {
+        return jdbcTemplate.update(
+                "delete from evento_outbox where id in"
+                        + " (select id from evento_outbox where criado_em < ? order by criado_em limit ?)",
+                Timestamp.from(limite), tamanhoLote);
+    }
+}
@@ -1,22 +1,81 @@
 package com.vssfullstack.usuario.infrastructure.repository;
 
 import com.vssfullstack.usuario.infrastructure.entity.Usuario;
-import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
+// Consultas marcadas como somente leitura podem ser atendidas pela réplica quando configurada
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    @Transactional(readOnly = true)
     Optional<Usuario>findByEmail(String email);
 
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "enderecos")
+    Optional<Usuario> findComEnderecosByEmail(String email);
+
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
 
+    @Transactional(readOnly = true)
+    @Query("select u.id from Usuario u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id")
+    int excluiPorId(@Param("id") Long id);
+
+    // Também incrementa a versão do token, para que as outras instâncias revoguem os tokens já emitidos
+    @Modifying
+    @Query("update Usuario u set u.excluidoEm = :agora, u.versaoToken = coalesce(u.versaoToken, 0) + 1,"
+            + " u.versaoTokenAtualizadaEm = :agora where u.id = :id")
+    int marcaExcluido(@Param("id") Long id, @Param("agora") Instant agora);
+
+    @Query(value = "select id from usuario where excluido_em is not null order by id limit :limite", nativeQuery = true)
+    List<Long> findIdsExcluidos(@Param("limite") int limite);
+
+    @Modifying
+    @Query(value = "delete from usuario where id in (:ids)", nativeQuery = true)
+    int purgaPorIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where u.id > :cursor order by u.id")
+    List<UsuarioResumoProjection> findPaginaAposId(@Param("cursor") Long cursor, Limit limit);
+
+    @Transactional(readOnly = true)
+    @Query("select u.versao from Usuario u where u.email = :email")
+    Optional<Long> findVersaoByEmail(@Param("email") String email);
+
+    // Trava a linha do usuário até o fim da transação, usada nas alterações de endereços e telefones
+    @Query(value = "select versao from usuario where id = :id and excluido_em is null for update", nativeQuery = true)
+    Optional<Long> findVersaoParaAlteracao(@Param("id") Long id);
+
     @Transactional
-    void deleteByEmail(String email);
+    @Modifying
+    @Query("update Usuario u set u.versao = u.versao + 1 where u.id = :id")
+    void incrementaVersao(@Param("id") Long id);
+
+    @Query("select u.email from Usuario u where u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Query(value = "select email from usuario where email in (:emails) and excluido_em is null", nativeQuery = true)
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    @Query("select u.email as email, u.versaoToken as versaoToken from Usuario u where u.email = :email")
+    Optional<VersaoTokenProjection> findVersaoTokenByEmail(@Param("email") String email);
 
 
 }
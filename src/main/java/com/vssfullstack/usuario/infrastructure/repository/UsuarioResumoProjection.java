@@ -0,0 +1,11 @@
+package com.vssfullstack.usuario.infrastructure.repository;
+
+// Projeção com os dados cadastrais do usuário, sem a senha e sem as coleções
+public interface UsuarioResumoProjection {
+
+    Long getId();
+
+    String getNome();
+
+    String getEmail();
+}
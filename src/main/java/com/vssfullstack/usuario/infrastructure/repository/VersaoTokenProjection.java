@@ -0,0 +1,9 @@
+package com.vssfullstack.usuario.infrastructure.repository;
+
+// Projeção com apenas o email e a versão do token do usuário
+public interface VersaoTokenProjection {
+
+    String getEmail();
+
+    Long getVersaoToken();
+}
@@ -0,0 +1,124 @@
+package com.vssfullstack.usuario.infrastructure.security;
+
+import com.vssfullstack.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// PasswordEncoder que executa o hash (BCrypt) em um pool dedicado e limitado,
+// rejeitando novas requisições com 503 quando a fila estiver cheia
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    // Encoder real que faz o trabalho pesado de CPU
+    private final PasswordEncoder delegate;
+
+    // Pool com uma thread por núcleo e fila limitada
+    private final ThreadPoolExecutor executor;
+
+    // Tempo sugerido ao cliente antes de tentar novamente, em segundos
+    private final long retryAfter;
+
+    // Métricas de uso do pool
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder tempoTotalNanos = new LongAdder();
+    private final LongAdder rejeitados = new LongAdder();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int capacidadeFila, long retryAfter) {
+        this.delegate = delegate;
+        this.retryAfter = retryAfter;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executa(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executa(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Submete o trabalho ao pool e aguarda o resultado, medindo a latência do hash
+    private <T> T executa(Callable<T> tarefa) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return tarefa.call();
+                } finally {
+                    tempoTotalNanos.add(System.nanoTime() - inicio);
+                    hashes.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Fila cheia: falha rápido em vez de ocupar mais uma thread do servidor
+            rejeitados.increment();
+            throw new ServiceUnavailableException("Serviço sobrecarregado, tente novamente.", retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Requisição interrompida.", retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Quantidade de tarefas aguardando na fila
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    // Quantidade de hashes executados
+    public long getHashCount() {
+        return hashes.sum();
+    }
+
+    // Tempo total gasto com hashes, em nanossegundos
+    public long getHashTotalTimeNanos() {
+        return tempoTotalNanos.sum();
+    }
+
+    // Quantidade de requisições rejeitadas por sobrecarga
+    public long getRejectedCount() {
+        return rejeitados.sum();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.vssfullstack.usuario.infrastructure.security;
 
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 // Define a classe JwtRequestFilter, que estende OncePerRequestFilter
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -20,10 +22,24 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
 
+    // Versões de token usadas para revogação no modo stateless
+    private final TokenVersionService tokenVersionService;
+
+    // Indica se a autenticação deve ser montada apenas a partir das claims do token
+    private final boolean stateless;
+
+    // Mede o tempo de verificação do token, incluindo os acertos do cache
+    private final Timer verificacaoTimer;
+
     // Construtor que inicializa as propriedades com instâncias fornecidas
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                            TokenVersionService tokenVersionService, boolean stateless,
+                            Timer verificacaoTimer) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.stateless = stateless;
+        this.verificacaoTimer = verificacaoTimer;
     }
 
     // Metodo chamado uma vez por requisição para processar o filtro
@@ -38,21 +54,29 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             // Extrai o token JWT do cabeçalho
             final String token = authorizationHeader.substring(7);
-            // Extrai o nome de usuário do token JWT
-            final String username = jwtUtil.extractUsername(token);
-
-            // Se o nome de usuário não for nulo e o usuário não estiver autenticado ainda
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Carrega os detalhes do usuário a partir do nome de usuário
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                // Valida o token JWT
-                if (jwtUtil.validateToken(token, username)) {
-                    // Cria um objeto de autenticação com as informações do usuário
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    // Define a autenticação no contexto de segurança
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            // Verifica o token uma única vez, obtendo usuário e expiração juntos
+            final JwtUtil.VerifiedToken verified = verificacaoTimer.record(() -> jwtUtil.verifyToken(token));
+            final String username = verified.username();
+
+            // Se o nome de usuário não for nulo, o token não estiver expirado e o usuário não estiver autenticado ainda
+            if (username != null && !verified.isExpired() && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // No modo stateless, rejeita tokens cuja versão foi revogada
+                if (stateless && !tokenVersionService.isVersaoValida(username, verified.version())) {
+                    chain.doFilter(request, response);
+                    return;
                 }
+                // Monta os detalhes do usuário a partir das claims ou carrega-os pelo nome de usuário
+                UserDetails userDetails = stateless
+                        ? org.springframework.security.core.userdetails.User.withUsername(username)
+                                .password("")
+                                .authorities(List.of())
+                                .build()
+                        : userDetailsService.loadUserByUsername(username);
+                // Cria um objeto de autenticação com as informações do usuário
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                // Define a autenticação no contexto de segurança
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
@@ -1,57 +1,127 @@
 package com.vssfullstack.usuario.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtUtil {
 
+    // Nome da claim que carrega a versão do token do usuário
+    private static final String CLAIM_VERSAO = "ver";
+
     // Chave secreta usada para assinar e verificar tokens JWT
     private final String secretKey = "sua-chave-secreta-super-segura-que-deve-ser-bem-longa";
 
+    // Chave HMAC e parser construídos uma única vez e reutilizados em todas as requisições
+    private final SecretKey signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser jwtParser = Jwts.parser().verifyWith(signingKey).build();
+
+    // Cache de tokens já verificados, cada entrada expira junto com o próprio token
+    private final Cache<String, VerifiedToken> tokenCache;
+
+    // Dados de um token cuja assinatura já foi verificada
+    public record VerifiedToken(String username, Date expiration, Long version) {
+
+        // Verifica se o token já passou da data de expiração
+        public boolean isExpired() {
+            return expiration.before(new Date());
+        }
+    }
+
+    // Construtor que monta o cache limitado de tokens verificados
+    public JwtUtil(@Value("${jwt.cache.max-size:100000}") long maxSize) {
+        this.tokenCache = Caffeine.newBuilder()
+                .maximumSize(maxSize) // Limita a quantidade de tokens mantidos em memória
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        // Remove a entrada no instante em que o token expira
+                        long restante = verified.expiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(restante, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
 
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats() // Habilita os contadores de acertos e falhas
+                .build();
+    }
 
     // Gera um token JWT com o nome de usuário e validade de 1 hora
     public String generateToken(String username) {
+        return generateToken(username, 0L);
+    }
+
+    // Gera um token JWT com o nome de usuário, a versão do token e validade de 1 hora
+    public String generateToken(String username, long version) {
         return Jwts.builder()
                 .subject(username) // Define o nome de usuário como o assunto do token
+                .claim(CLAIM_VERSAO, version) // Define a versão usada para revogar tokens antigos
                 .issuedAt(new Date()) // Define a data e hora de emissão do token
                 .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // Define a data e hora de expiração (1 hora a partir da emissão)
-                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256) // Converte a chave secreta em bytes e assina o token com ela
+                .signWith(signingKey, Jwts.SIG.HS256) // Assina o token com a chave secreta
                 .compact(); // Constrói o token JWT
     }
 
     // Extrai as claims do token JWT (informações adicionais do token)
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8))) // Define a chave secreta para validar a assinatura do token
-                .build()
+        return jwtParser
                 .parseSignedClaims(token) // Analisa o token JWT e obtém as claims
                 .getPayload(); // Retorna o corpo das claims
     }
 
+    // Verifica o token uma única vez e retorna usuário e expiração juntos
+    public VerifiedToken verifyToken(String token) {
+        // Reaproveita a verificação anterior se o token já estiver no cache
+        return tokenCache.get(token, t -> {
+            // Valida a assinatura e extrai as claims apenas na primeira vez
+            Claims claims = extractClaims(t);
+            return new VerifiedToken(claims.getSubject(), claims.getExpiration(), claims.get(CLAIM_VERSAO, Long.class));
+        });
+    }
+
     // Extrai o nome de usuário do token JWT
     public String extractUsername(String token) {
-        // Obtém o assunto (nome de usuário) das claims do token
-        return extractClaims(token).getSubject();
+        // Obtém o assunto (nome de usuário) do token verificado
+        return verifyToken(token).username();
     }
 
     // Verifica se o token JWT está expirado
     public boolean isTokenExpired(String token) {
         // Compara a data de expiração do token com a data atual
-        return extractClaims(token).getExpiration().before(new Date());
+        return verifyToken(token).isExpired();
     }
 
     // Valida o token JWT verificando o nome de usuário e se o token não está expirado
     public boolean validateToken(String token, String username) {
-        // Extrai o nome de usuário do token
-        final String extractedUsername = extractUsername(token);
+        // Verifica o token uma única vez
+        final VerifiedToken verified = verifyToken(token);
         // Verifica se o nome de usuário do token corresponde ao fornecido e se o token não está expirado
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return (verified.username().equals(username) && !verified.isExpired());
+    }
+
+    // Retorna os contadores de acertos e falhas do cache de tokens
+    public CacheStats tokenCacheStats() {
+        return tokenCache.stats();
     }
 }
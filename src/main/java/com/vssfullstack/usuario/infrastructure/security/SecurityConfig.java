@@ -1,6 +1,9 @@
 package com.vssfullstack.usuario.infrastructure.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,7 +15,6 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -23,24 +25,42 @@ public class SecurityConfig {
     // Instâncias de JwtUtil e UserDetailsService injetadas pelo Spring
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
 
-    // Construtor para injeção de dependências de JwtUtil e UserDetailsService
+    // Indica se o filtro JWT deve autenticar sem consultar o UserDetailsService
+    private final boolean stateless;
+
+    // Registro de métricas usado para medir a verificação do token
+    private final MeterRegistry meterRegistry;
+
+    // Construtor para injeção de dependências de JwtUtil, UserDetailsService e TokenVersionService
     @Autowired
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                          TokenVersionService tokenVersionService,
+                          @Value("${security.stateless.enabled:false}") boolean stateless,
+                          MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.stateless = stateless;
+        this.meterRegistry = meterRegistry;
     }
 
     // Configuração do filtro de segurança
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        // Cria uma instância do JwtRequestFilter com JwtUtil e UserDetailsService
-        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService);
+        // Cria uma instância do JwtRequestFilter com JwtUtil, UserDetailsService e o modo de autenticação
+        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService, tokenVersionService, stateless,
+                Timer.builder("usuario.jwt.verificacao")
+                        .description("Tempo de verificação do token JWT no filtro")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
 
         http
                 .csrf(AbstractHttpConfigurer::disable) // Desativa proteção CSRF para APIs REST (não aplicável a APIs que não mantêm estado)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/usuario/login").permitAll() // Permite acesso ao endpoint de login sem autenticação
+                        .requestMatchers("/actuator/health").permitAll() // Permite a verificação de saúde sem autenticação
                         .requestMatchers(HttpMethod.GET, "/auth").permitAll()// Permite acesso ao endpoint GET /auth sem autenticação
                         .requestMatchers(HttpMethod.POST, "/usuario").permitAll() // Permite acesso ao endpoint POST /usuario sem autenticação
                         .requestMatchers("/usuario/**").authenticated() // Requer autenticação para qualquer endpoint que comece com /usuario/
@@ -55,10 +75,15 @@ public class SecurityConfig {
         return http.build();
     }
 
-    // Configura o PasswordEncoder para criptografar senhas usando BCrypt
+    // Configura o PasswordEncoder para criptografar senhas usando BCrypt em um pool dedicado e limitado
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Retorna uma instância de BCryptPasswordEncoder
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password-hash.threads:0}") int threads,
+            @Value("${security.password-hash.queue-capacity:64}") int capacidadeFila,
+            @Value("${security.password-hash.retry-after:1}") long retryAfter) {
+        // Usa uma thread por núcleo quando a quantidade não for configurada
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), tamanhoPool, capacidadeFila, retryAfter);
     }
 
     // Configura o AuthenticationManager usando AuthenticationConfiguration
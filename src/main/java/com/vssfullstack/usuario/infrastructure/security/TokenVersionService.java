@@ -0,0 +1,108 @@
+package com.vssfullstack.usuario.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vssfullstack.usuario.infrastructure.datasource.RoteadorDataSource;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioJdbcRepository;
+import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
+import com.vssfullstack.usuario.infrastructure.repository.VersaoTokenProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class TokenVersionService {
+
+    // Marca usada no mapa para usuários inexistentes ou excluídos
+    private static final long REVOGADO = -1L;
+
+    private final UsuarioRepository usuarioRepository;
+
+    // A atualização incremental só é necessária quando o filtro JWT consulta as versões (modo stateless)
+    private final boolean stateless;
+
+    // Intervalo após o qual o mapa é descartado e recarregado sob demanda
+    private final Duration intervaloRecargaCompleta;
+
+    // Cache limitado de email para a versão atual do token; os emails menos usados são descartados
+    // e recarregados do banco na próxima requisição
+    private final Cache<String, Long> versoes;
+
+    // Instante da última recarga completa
+    private volatile Instant ultimaRecargaCompleta = Instant.now();
+
+    public TokenVersionService(UsuarioRepository usuarioRepository,
+                               @Value("${security.stateless.enabled:false}") boolean stateless,
+                               @Value("${security.stateless.full-refresh-interval:10m}") Duration intervaloRecargaCompleta,
+                               @Value("${security.stateless.cache.max-size:100000}") long maxSize) {
+        this.usuarioRepository = usuarioRepository;
+        this.stateless = stateless;
+        this.intervaloRecargaCompleta = intervaloRecargaCompleta;
+        this.versoes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    // Retorna a versão atual do token do usuário, consultando o primário apenas na primeira vez.
+    // Não usa a réplica: a atualização incremental só corrige emails já presentes no mapa, e uma versão
+    // antiga carregada depois dela manteria tokens revogados válidos até a recarga completa.
+    // A consulta é feita fora do lock do cache; se uma alteração gravar uma versão nesse meio tempo,
+    // ela prevalece sobre a versão lida
+    public long versaoAtual(String email) {
+        Long versao = versoes.getIfPresent(email);
+        if (versao != null) {
+            return versao;
+        }
+        long carregada = RoteadorDataSource.noPrimario(() -> usuarioRepository.findVersaoTokenByEmail(email))
+                .map(this::versaoDe)
+                .orElse(REVOGADO);
+        Long existente = versoes.asMap().putIfAbsent(email, carregada);
+        return existente != null ? existente : carregada;
+    }
+
+    // Verifica se a versão presente no token ainda é a versão atual do usuário
+    public boolean isVersaoValida(String email, Long versaoToken) {
+        long atual = versaoAtual(email);
+        return atual != REVOGADO && atual == (versaoToken != null ? versaoToken : 0L);
+    }
+
+    // Atualiza a versão conhecida após alteração de senha ou email
+    public void atualizaVersao(String email, Long versaoToken) {
+        versoes.put(email, versaoToken != null ? versaoToken : 0L);
+    }
+
+    // Revoga todos os tokens do usuário após a exclusão
+    public void revoga(String email) {
+        versoes.put(email, REVOGADO);
+    }
+
+    // Descarta o mapa periodicamente, como rede de segurança para alterações não capturadas
+    // pela atualização incremental
+    public void recarregaSeNecessario(Instant agora) {
+        if (Duration.between(ultimaRecargaCompleta, agora).compareTo(intervaloRecargaCompleta) >= 0) {
+            versoes.invalidateAll();
+            ultimaRecargaCompleta = agora;
+        }
+    }
+
+    // Aplica as versões alteradas, incluindo as feitas por outras instâncias. Atualiza somente os
+    // usuários que já estão no mapa e revoga os excluídos
+    public void aplica(List<UsuarioJdbcRepository.VersaoTokenAlterada> alteradas) {
+        if (!stateless) {
+            return;
+        }
+        for (UsuarioJdbcRepository.VersaoTokenAlterada alterada : alteradas) {
+            long versao = alterada.excluido() ? REVOGADO
+                    : alterada.versaoToken() != null ? alterada.versaoToken() : 0L;
+            versoes.asMap().computeIfPresent(alterada.email(), (email, atual) -> versao);
+        }
+    }
+
+    // Converte a versão da projeção, tratando usuários antigos sem versão como 0
+    private long versaoDe(VersaoTokenProjection versao) {
+        return versao.getVersaoToken() != null ? versao.getVersaoToken() : 0L;
+    }
+}
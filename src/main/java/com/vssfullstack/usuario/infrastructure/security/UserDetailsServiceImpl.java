@@ -2,33 +2,105 @@ package com.vssfullstack.usuario.infrastructure.security;
 
 
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vssfullstack.usuario.infrastructure.cache.CargaCache;
+import com.vssfullstack.usuario.infrastructure.cache.EmailBloomFilter;
+import com.vssfullstack.usuario.infrastructure.datasource.AlteracoesRecentes;
 import com.vssfullstack.usuario.infrastructure.entity.Usuario;
 import com.vssfullstack.usuario.infrastructure.repository.UsuarioRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     // Repositório para acessar dados de usuário no banco de dados
 
     private final UsuarioRepository usuarioRepository;
 
+    // Filtro de emails cadastrados para rejeitar logins de emails desconhecidos sem consultar o banco
+    private final EmailBloomFilter emailBloomFilter;
+
+    // Emails alterados há pouco, cujas cargas leem do primário
+    private final AlteracoesRecentes alteracoesRecentes;
+
+    // Cache de credenciais por e-mail para evitar uma consulta ao banco a cada requisição autenticada
+    private final AsyncCache<String, Credenciais> principalCache;
+
+    // Mede o tempo de cada carga de usuário, com ou sem acerto no cache
+    private final Timer buscaTimer;
+
+    // Dados mínimos do usuário mantidos em cache (e-mail e hash da senha)
+    private record Credenciais(String email, String senha) {
+    }
+
+    // Construtor que inicializa o repositório e o cache limitado por tamanho e tempo de vida
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository,
+                                  EmailBloomFilter emailBloomFilter,
+                                  AlteracoesRecentes alteracoesRecentes,
+                                  @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.principal-cache.ttl:5m}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.emailBloomFilter = emailBloomFilter;
+        this.alteracoesRecentes = alteracoesRecentes;
+        this.buscaTimer = Timer.builder("usuario.userdetails.busca")
+                .description("Tempo de carga do usuário autenticado")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
     // Implementação do metodo para carregar detalhes do usuário pelo e-mail
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // Busca o usuário no banco de dados pelo e-mail
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
+        return buscaTimer.record(() -> carregaUsuario(email));
+    }
+
+    // Carrega as credenciais do cache ou do banco e monta o UserDetails
+    private UserDetails carregaUsuario(String email) {
+        // Rejeita sem consultar o banco quando o email certamente não está cadastrado
+        if (emailBloomFilter.isDefinitivamenteAusente(email)) {
+            throw new UsernameNotFoundException("Usuário não encontrado: " + email);
+        }
+
+        // Busca as credenciais no cache e, se ausentes, no banco pelo e-mail normalizado, com a consulta
+        // fora do lock do cache. Logo após a troca de senha a carga usa o primário, pois uma réplica
+        // atrasada devolveria o hash antigo; nos demais casos pode usar a réplica
+        Credenciais credenciais = CargaCache.busca(principalCache, Usuario.normalizaEmail(email), e -> {
+            Usuario usuario = alteracoesRecentes.carrega(e, () -> usuarioRepository.findByEmail(e))
+                    .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + e));
+            return new Credenciais(usuario.getEmail(), usuario.getSenha());
+        });
 
-        // Cria e retorna um objeto UserDetails com base no usuário encontrado
+        // Cria e retorna um novo objeto UserDetails a cada chamada, pois o Spring Security apaga a senha após a autenticação
         return org.springframework.security.core.userdetails.User
-                .withUsername(usuario.getEmail()) // Define o nome de usuário como o e-mail
-                .password(usuario.getSenha()) // Define a senha do usuário
+                .withUsername(credenciais.email()) // Define o nome de usuário como o e-mail
+                .password(credenciais.senha()) // Define a senha do usuário
                 .build(); // Constrói o objeto UserDetails
     }
+
+    // Remove o usuário do cache após alteração ou exclusão dos seus dados
+    public void invalidaCache(String email) {
+        alteracoesRecentes.marca(email);
+        principalCache.synchronous().invalidate(Usuario.normalizaEmail(email));
+    }
+
+    // Retorna os contadores de acertos e falhas do cache de credenciais
+    public CacheStats cacheStats() {
+        return principalCache.synchronous().stats();
+    }
 }
@@ -0,0 +1,32 @@
+-- Normaliza os emails gravados antes do índice único (sem espaços e em minúsculas).
+-- Executado antes do Hibernate criar o índice, a cada inicialização; sem linhas a corrigir é apenas uma leitura.
+-- Colisões (mesmo email em caixas diferentes): o cadastro mais antigo (menor id) fica com o email
+-- e os demais são renomeados para '<email>#duplicado-<id>', preservando os dados para revisão manual.
+DO $$
+BEGIN
+    IF to_regclass('usuario') IS NULL THEN
+        RETURN;
+    END IF;
+
+    -- Nada a fazer quando o índice único já existe e todos os emails estão normalizados
+    IF to_regclass('uk_usuario_email') IS NOT NULL AND NOT EXISTS (
+        SELECT 1 FROM usuario WHERE email <> lower(trim(email)) AND email NOT LIKE '%#duplicado-%'
+    ) THEN
+        RETURN;
+    END IF;
+
+    UPDATE usuario u
+    SET email = left(lower(trim(u.email)), 80) || '#duplicado-' || u.id
+    FROM (
+        SELECT id, row_number() OVER (PARTITION BY lower(trim(email)) ORDER BY id) AS ordem
+        FROM usuario
+        WHERE email IS NOT NULL
+    ) d
+    WHERE d.id = u.id
+      AND d.ordem > 1;
+
+    UPDATE usuario
+    SET email = lower(trim(email))
+    WHERE email <> lower(trim(email))
+      AND email NOT LIKE '%#duplicado-%';
+END $$;
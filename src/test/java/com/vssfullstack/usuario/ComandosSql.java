@@ -0,0 +1,35 @@
+package com.vssfullstack.usuario;
+
+import com.vssfullstack.usuario.infrastructure.metrics.ContadorConsultas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// StatementInspector dos testes: mantém a contagem por requisição de ContadorConsultas
+// e guarda os comandos SQL emitidos pelo Hibernate na thread atual durante uma ação
+public class ComandosSql extends ContadorConsultas {
+
+    private static final ThreadLocal<List<String>> CAPTURADOS = new ThreadLocal<>();
+
+    // Executa a ação e retorna os comandos SQL emitidos por ela, em ordem
+    public static List<String> durante(Runnable acao) {
+        List<String> comandos = new ArrayList<>();
+        CAPTURADOS.set(comandos);
+        try {
+            acao.run();
+        } finally {
+            CAPTURADOS.remove();
+        }
+        return comandos;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> comandos = CAPTURADOS.get();
+        if (comandos != null) {
+            comandos.add(sql.trim().toLowerCase(Locale.ROOT));
+        }
+        return super.inspect(sql);
+    }
+}
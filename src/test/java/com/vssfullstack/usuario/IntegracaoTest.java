@@ -0,0 +1,43 @@
+package com.vssfullstack.usuario;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Base dos testes de integração: a aplicação sobe contra um PostgreSQL embutido,
+// iniciado uma única vez e compartilhado por todas as classes de teste
+@SpringBootTest
+public abstract class IntegracaoTest {
+
+    protected static final EmbeddedPostgres POSTGRES = inicia();
+
+    // Inicia um PostgreSQL embutido encerrado junto com a JVM
+    protected static EmbeddedPostgres inicia() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // O processo está terminando, não há o que fazer
+                }
+            }, "postgres-embutido-shutdown"));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", ComandosSql.class::getName);
+    }
+}
@@ -0,0 +1,57 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.dto.ImportacaoResultadoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garante que o CSV da importação não trunca senhas com vírgula
+class UsuarioImportacaoServiceTest extends IntegracaoTest {
+
+    @Autowired
+    private UsuarioImportacaoService usuarioImportacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void campoEntreAspasPreservaVirgulasEAspas() throws IOException {
+        String email = "importacao-" + UUID.randomUUID() + "@teste.local";
+
+        ImportacaoResultadoDTO resultado = importaCsv("nome,email,senha\n"
+                + "\"Silva, Ana\"," + email + ",\"se,nha \"\"forte\"\"\"\n");
+
+        assertThat(resultado.getUsuariosImportados()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select nome from usuario where email = ?", String.class, email))
+                .isEqualTo("Silva, Ana");
+        String hash = jdbcTemplate.queryForObject("select senha from usuario where email = ?", String.class, email);
+        assertThat(new BCryptPasswordEncoder().matches("se,nha \"forte\"", hash)).isTrue();
+    }
+
+    @Test
+    void linhaComCamposAMaisERejeitada() throws IOException {
+        String email = "importacao-" + UUID.randomUUID() + "@teste.local";
+
+        ImportacaoResultadoDTO resultado = importaCsv("Ana," + email + ",se,nha\n");
+
+        assertThat(resultado.getUsuariosImportados()).isZero();
+        assertThat(resultado.getErros()).isEqualTo(1);
+        assertThat(resultado.getDetalhesErros().get(0).getLinha()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from usuario where email = ?", Long.class, email))
+                .isZero();
+    }
+
+    private ImportacaoResultadoDTO importaCsv(String corpo) throws IOException {
+        return usuarioImportacaoService.importa(
+                new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8)), "text/csv");
+    }
+}
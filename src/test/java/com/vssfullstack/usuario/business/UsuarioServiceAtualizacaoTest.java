@@ -0,0 +1,172 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.ComandosSql;
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.dto.EnderecoDTO;
+import com.vssfullstack.usuario.business.dto.TelefoneDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.infrastructure.exceptions.PreconditionFailedException;
+import com.vssfullstack.usuario.infrastructure.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Garante que as atualizações gravam apenas as colunas alteradas e não gravam nada sem alterações
+class UsuarioServiceAtualizacaoTest extends IntegracaoTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void atualizacaoSemAlteracoesNaoGravaUsuario() {
+        String email = criaUsuario();
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosUsuario(
+                token(email), UsuarioDTO.builder().nome("Original").build(), null));
+
+        assertThat(updates(comandos)).isEmpty();
+    }
+
+    @Test
+    void atualizacaoDoNomeGravaApenasONomeEAVersao() {
+        String email = criaUsuario();
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosUsuario(
+                token(email), UsuarioDTO.builder().nome("Alterado").build(), null));
+
+        assertThat(updates(comandos)).hasSize(1);
+        assertThat(colunas(updates(comandos).get(0), "usuario")).containsExactlyInAnyOrder("nome", "versao");
+    }
+
+    @Test
+    void atualizacaoSemAlteracoesNaoGravaEndereco() {
+        Long id = criaEndereco(criaUsuario());
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosEndereco(
+                id, EnderecoDTO.builder().rua("Rua A").numero("10").build(), null));
+
+        assertThat(updates(comandos)).isEmpty();
+    }
+
+    @Test
+    void atualizacaoDoNumeroGravaApenasONumeroDoEndereco() {
+        Long id = criaEndereco(criaUsuario());
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosEndereco(
+                id, EnderecoDTO.builder().numero("20").build(), null));
+
+        // Além do endereço, apenas a versão do usuário dono é incrementada
+        List<String> enderecos = updates(comandos).stream().filter(c -> c.startsWith("update endereco ")).toList();
+        assertThat(enderecos).hasSize(1);
+        assertThat(colunas(enderecos.get(0), "endereco")).containsExactlyInAnyOrder("numero", "versao");
+        assertThat(updates(comandos)).hasSize(2);
+    }
+
+    @Test
+    void atualizacaoSemAlteracoesNaoGravaTelefone() {
+        Long id = criaTelefone(criaUsuario());
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosTelefone(
+                id, TelefoneDTO.builder().ddd("11").numero("999990000").build(), null));
+
+        assertThat(updates(comandos)).isEmpty();
+    }
+
+    @Test
+    void atualizacaoDoDddGravaApenasODddDoTelefone() {
+        Long id = criaTelefone(criaUsuario());
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.atualizaDadosTelefone(
+                id, TelefoneDTO.builder().ddd("21").build(), null));
+
+        List<String> telefones = updates(comandos).stream().filter(c -> c.startsWith("update telefone ")).toList();
+        assertThat(telefones).hasSize(1);
+        assertThat(colunas(telefones.get(0), "telefone")).containsExactlyInAnyOrder("ddd", "versao");
+    }
+
+    @Test
+    void alteracaoDeEnderecoUsaOEtagDoPerfil() {
+        String email = criaUsuario();
+        Long id = criaEndereco(email);
+        Long versaoPerfil = usuarioService.buscaVersaoUsuario(email);
+
+        EnderecoDTO atualizado = usuarioService.atualizaDadosEndereco(
+                id, EnderecoDTO.builder().numero("20").build(), versaoPerfil);
+
+        // O novo ETag é a nova versão do perfil, aceita na próxima alteração de qualquer filho
+        assertThat(atualizado.getVersao()).isEqualTo(versaoPerfil + 1).isEqualTo(usuarioService.buscaVersaoUsuario(email));
+        Long telefone = criaTelefone(email);
+        usuarioService.atualizaDadosTelefone(telefone, TelefoneDTO.builder().ddd("21").build(), atualizado.getVersao());
+    }
+
+    @Test
+    void alteracaoDeTelefoneComEtagAntigoDoPerfilERejeitada() {
+        String email = criaUsuario();
+        Long id = criaTelefone(email);
+        Long versaoAntiga = usuarioService.buscaVersaoUsuario(email);
+        usuarioService.atualizaDadosUsuario(token(email), UsuarioDTO.builder().nome("Alterado").build(), null);
+
+        assertThatThrownBy(() -> usuarioService.atualizaDadosTelefone(
+                id, TelefoneDTO.builder().ddd("21").build(), versaoAntiga))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    // Comandos de escrita emitidos pelo Hibernate
+    private static List<String> updates(List<String> comandos) {
+        return comandos.stream().filter(c -> c.startsWith("update ")).toList();
+    }
+
+    // Colunas do "set" de um update na tabela informada, ex.: "update usuario set nome=?,versao=? where ..."
+    private static Set<String> colunas(String update, String tabela) {
+        assertThat(update).startsWith("update " + tabela + " set ");
+        String set = update.substring(("update " + tabela + " set ").length(), update.indexOf(" where "));
+        return Arrays.stream(set.split(","))
+                .map(atribuicao -> atribuicao.substring(0, atribuicao.indexOf('=')).trim())
+                .collect(Collectors.toSet());
+    }
+
+    private String token(String email) {
+        return "Bearer " + jwtUtil.generateToken(email);
+    }
+
+    private String criaUsuario() {
+        String email = "atualizacao-" + UUID.randomUUID() + "@teste.local";
+        usuarioService.salvarUsuario(UsuarioDTO.builder()
+                .nome("Original")
+                .email(email)
+                .senha("senha-teste")
+                .build());
+        return email;
+    }
+
+    private Long criaEndereco(String email) {
+        return jdbcTemplate.queryForObject("""
+                insert into endereco (rua, numero, cidade, estado, cep, usuario_id, versao)
+                select 'Rua A', '10', 'São Paulo', 'SP', '01001-000', id, 0 from usuario where email = ?
+                returning id
+                """, Long.class, email);
+    }
+
+    private Long criaTelefone(String email) {
+        return jdbcTemplate.queryForObject("""
+                insert into telefone (numero, ddd, usuario_id, versao)
+                select '999990000', '11', id, 0 from usuario where email = ?
+                returning id
+                """, Long.class, email);
+    }
+}
@@ -0,0 +1,47 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.dto.PaginaUsuarioDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import com.vssfullstack.usuario.business.dto.UsuarioResumoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garante que a busca por prefixo do nome pagina pelo cursor composto (nome, id) sem pular nem repetir usuários
+class UsuarioServiceBuscaTest extends IntegracaoTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Test
+    void buscaPorNomePaginaPeloNomeEId() {
+        String prefixo = "Busca " + UUID.randomUUID() + " ";
+
+        // Cadastrados fora da ordem alfabética, com dois nomes repetidos
+        for (String sufixo : List.of("d", "b", "a", "c", "b")) {
+            usuarioService.salvarUsuario(UsuarioDTO.builder()
+                    .nome(prefixo + sufixo)
+                    .email("busca-" + UUID.randomUUID() + "@teste.local")
+                    .senha("senha-teste")
+                    .build());
+        }
+
+        List<String> nomes = new ArrayList<>();
+        String cursorNome = null;
+        long cursor = 0;
+        do {
+            PaginaUsuarioDTO pagina = usuarioService.buscaUsuarios(prefixo, null, null, null, cursorNome, cursor, 2);
+            pagina.getUsuarios().stream().map(UsuarioResumoDTO::getNome).forEach(nomes::add);
+            cursorNome = pagina.getProximoCursorNome();
+            cursor = pagina.getProximoCursor() != null ? pagina.getProximoCursor() : 0;
+        } while (cursorNome != null);
+
+        assertThat(nomes).containsExactly(prefixo + "a", prefixo + "b", prefixo + "b", prefixo + "c", prefixo + "d");
+    }
+}
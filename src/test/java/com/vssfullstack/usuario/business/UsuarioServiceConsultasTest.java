@@ -0,0 +1,77 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.ComandosSql;
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garante que o GET /usuario monta o DTO com um número fixo de consultas, sem N+1
+class UsuarioServiceConsultasTest extends IntegracaoTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void buscaUsuarioUsaUmaConsultaDeUsuarioEUmaDeTelefones() {
+        String email = criaUsuario(1, 1);
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.buscarUsuarioPorEmail(email));
+
+        // Usuário com endereços (join fetch) e telefones em uma segunda consulta
+        assertThat(comandos).hasSize(2);
+        assertThat(comandos.get(0)).contains("from usuario").contains("endereco");
+        assertThat(comandos.get(1)).contains("from telefone");
+    }
+
+    @Test
+    void quantidadeDeConsultasNaoCresceComOsFilhos() {
+        String email = criaUsuario(10, 10);
+
+        UsuarioDTO[] usuario = new UsuarioDTO[1];
+        List<String> comandos = ComandosSql.durante(() -> usuario[0] = usuarioService.buscarUsuarioPorEmail(email));
+
+        assertThat(comandos).hasSize(2);
+        assertThat(usuario[0].getEnderecos()).hasSize(10);
+        assertThat(usuario[0].getTelefones()).hasSize(10);
+    }
+
+    @Test
+    void segundaBuscaNaoConsultaOBanco() {
+        String email = criaUsuario(2, 2);
+        usuarioService.buscarUsuarioPorEmail(email);
+
+        List<String> comandos = ComandosSql.durante(() -> usuarioService.buscarUsuarioPorEmail(email));
+
+        assertThat(comandos).isEmpty();
+    }
+
+    // Cadastra um usuário com a quantidade informada de endereços e telefones e retorna o email
+    private String criaUsuario(int enderecos, int telefones) {
+        String email = "consultas-" + UUID.randomUUID() + "@teste.local";
+        usuarioService.salvarUsuario(UsuarioDTO.builder()
+                .nome("Consultas")
+                .email(email)
+                .senha("senha-teste")
+                .build());
+        Long usuarioId = jdbcTemplate.queryForObject("select id from usuario where email = ?", Long.class, email);
+        for (int i = 0; i < enderecos; i++) {
+            jdbcTemplate.update("insert into endereco (rua, numero, cidade, estado, cep, usuario_id, versao) values (?, ?, ?, ?, ?, ?, 0)",
+                    "Rua " + i, String.valueOf(i), "Cidade", "SP", "01001-000", usuarioId);
+        }
+        for (int i = 0; i < telefones; i++) {
+            jdbcTemplate.update("insert into telefone (numero, ddd, usuario_id, versao) values (?, ?, ?, 0)",
+                    "9999900" + i, "11", usuarioId);
+        }
+        return email;
+    }
+}
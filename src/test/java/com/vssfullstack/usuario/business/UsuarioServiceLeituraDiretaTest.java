@@ -0,0 +1,72 @@
+package com.vssfullstack.usuario.business;
+
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.dto.UsuarioDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Garante que a leitura direta do GET /usuario devolve os mesmos bytes que a serialização do UsuarioDTO
+class UsuarioServiceLeituraDiretaTest extends IntegracaoTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void leituraDiretaIgualASerializacaoDoDto() {
+        String email = criaUsuario();
+
+        byte[] dto = objectMapper.writeValueAsBytes(usuarioService.buscarUsuarioPorEmail(email));
+        byte[] direto = usuarioService.buscaUsuarioJson(email).getJson();
+
+        assertThat(new String(direto, StandardCharsets.UTF_8)).isEqualTo(new String(dto, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void usuarioSemEnderecosNemTelefones() {
+        String email = "leitura-direta-" + UUID.randomUUID() + "@teste.local";
+        usuarioService.salvarUsuario(UsuarioDTO.builder()
+                .nome("Sem filhos")
+                .email(email)
+                .senha("senha-teste")
+                .build());
+
+        byte[] dto = objectMapper.writeValueAsBytes(usuarioService.buscarUsuarioPorEmail(email));
+        byte[] direto = usuarioService.buscaUsuarioJson(email).getJson();
+
+        assertThat(new String(direto, StandardCharsets.UTF_8)).isEqualTo(new String(dto, StandardCharsets.UTF_8));
+    }
+
+    // Cadastra um usuário com endereços e telefones (alguns campos nulos) e altera o primeiro de cada,
+    // o que move a linha para o fim da tabela: sem ordenação explícita as duas leituras divergiriam
+    private String criaUsuario() {
+        String email = "leitura-direta-" + UUID.randomUUID() + "@teste.local";
+        usuarioService.salvarUsuario(UsuarioDTO.builder()
+                .nome("Leitura Direta")
+                .email(email)
+                .senha("senha-teste")
+                .build());
+        Long usuarioId = jdbcTemplate.queryForObject("select id from usuario where email = ?", Long.class, email);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("insert into endereco (rua, numero, complemento, cidade, estado, cep, usuario_id, versao) values (?, ?, ?, ?, ?, ?, ?, 0)",
+                    "Rua " + i, String.valueOf(i), i % 2 == 0 ? null : "Apto " + i, "Cidade", "SP", "01001-000", usuarioId);
+            jdbcTemplate.update("insert into telefone (numero, ddd, usuario_id, versao) values (?, ?, ?, 0)",
+                    "9999900" + i, i % 2 == 0 ? null : "11", usuarioId);
+        }
+        jdbcTemplate.update("update endereco set rua = 'Rua alterada' where id = (select min(id) from endereco where usuario_id = ?)", usuarioId);
+        jdbcTemplate.update("update telefone set numero = '988887777' where id = (select min(id) from telefone where usuario_id = ?)", usuarioId);
+        return email;
+    }
+}
@@ -0,0 +1,187 @@
+package com.vssfullstack.usuario.infrastructure.datasource;
+
+import com.vssfullstack.usuario.IntegracaoTest;
+import com.vssfullstack.usuario.business.UsuarioCache;
+import com.vssfullstack.usuario.business.UsuarioService;
+import com.vssfullstack.usuario.infrastructure.security.TokenVersionService;
+import com.vssfullstack.usuario.infrastructure.security.UserDetailsServiceImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sobe a aplicação com dois bancos independentes no papel de primário e réplica. Cada um guarda
+// a própria origem em uma tabela de teste, o que mostra para qual deles cada leitura foi roteada.
+// A réplica recebe uma cópia das tabelas de usuário, sem constraints, onde o mesmo usuário é gravado
+// com valores diferentes, como em uma réplica que ainda não aplicou a última alteração
+class RoteamentoDataSourceTest extends IntegracaoTest {
+
+    private static final EmbeddedPostgres REPLICA = inicia();
+
+    private static final String CONSULTA_ORIGEM = "select origem from roteamento_teste";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.enabled", () -> "true");
+        registry.add("datasource.replica.url", () -> REPLICA.getJdbcUrl("postgres", "postgres"));
+        registry.add("datasource.replica.username", () -> "postgres");
+        registry.add("datasource.replica.password", () -> "");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private DataSource primario;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioCache usuarioCache;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void preparaBancos() {
+        RoteadorDataSource.limpaRequisicao();
+        marcaOrigem(primario, "primario");
+        marcaOrigem(REPLICA.getPostgresDatabase(), "replica");
+        for (String tabela : new String[]{"usuario", "endereco", "telefone"}) {
+            copiaTabela(tabela);
+        }
+        monitorReplica.mede();
+        assertThat(monitorReplica.isUtilizavel()).isTrue();
+    }
+
+    @AfterEach
+    void encerraRequisicao() {
+        RoteadorDataSource.limpaRequisicao();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void leituraSomenteLeituraVaiParaReplica() {
+        assertThat(origem(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void transacaoDeEscritaVaiParaPrimario() {
+        assertThat(origem(false)).isEqualTo("primario");
+    }
+
+    @Test
+    void leituraAposEscritaNaMesmaRequisicaoUsaPrimario() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        origem(false);
+        assertThat(origem(true)).isEqualTo("primario");
+
+        // O filtro limpa a marca ao fim da requisição e a próxima volta para a réplica
+        RoteadorDataSource.limpaRequisicao();
+        assertThat(origem(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void escritaForaDeRequisicaoNaoPrendeAThreadAoPrimario() {
+        // Como em uma tarefa agendada: sem requisição associada à thread
+        RequestContextHolder.resetRequestAttributes();
+
+        origem(false);
+
+        assertThat(origem(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void leituraForcadaUsaPrimario() {
+        assertThat(RoteadorDataSource.noPrimario(() -> origem(true))).isEqualTo("primario");
+
+        // A marca vale só durante a ação
+        assertThat(origem(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void cargasDeCacheSemAlteracaoRecenteLeemDaReplica() {
+        String email = insereUsuarioDesatualizado();
+
+        assertThat(usuarioService.buscarUsuarioPorEmail(email).getNome()).isEqualTo("Replica");
+        assertThat(userDetailsService.loadUserByUsername(email).getPassword()).isEqualTo("hash-replica");
+
+        // As versões de token são verificadas a cada requisição e sempre vêm do primário
+        assertThat(tokenVersionService.versaoAtual(email)).isEqualTo(3L);
+    }
+
+    @Test
+    void cargasDeCacheAposAlteracaoLeemDoPrimario() {
+        String email = insereUsuarioDesatualizado();
+
+        // A invalidação após uma alteração marca o email, e a carga seguinte ignora a réplica
+        usuarioCache.invalida(email);
+        userDetailsService.invalidaCache(email);
+
+        assertThat(usuarioService.buscarUsuarioPorEmail(email).getNome()).isEqualTo("Primario");
+        assertThat(userDetailsService.loadUserByUsername(email).getPassword()).isEqualTo("hash-primario");
+    }
+
+    // Grava o mesmo usuário nos dois bancos, com nome, senha e versão do token diferentes na réplica
+    private String insereUsuarioDesatualizado() {
+        String email = "roteamento-" + UUID.randomUUID() + "@teste.local";
+        Long id = new JdbcTemplate(primario).queryForObject(
+                "insert into usuario (nome, email, senha, versao, versao_token) values (?, ?, ?, 0, 3) returning id",
+                Long.class, "Primario", email, "hash-primario");
+        new JdbcTemplate(REPLICA.getPostgresDatabase()).update(
+                "insert into usuario (id, nome, email, senha, versao, versao_token) values (?, ?, ?, ?, 0, 1)",
+                id, "Replica", email, "hash-replica");
+        return email;
+    }
+
+    // Cria na réplica uma tabela com as mesmas colunas da tabela do primário
+    private void copiaTabela(String tabela) {
+        String colunas = new JdbcTemplate(primario).queryForObject("""
+                select string_agg(quote_ident(attname) || ' ' || format_type(atttypid, atttypmod), ', ' order by attnum)
+                from pg_attribute where attrelid = cast(? as regclass) and attnum > 0 and not attisdropped
+                """, String.class, tabela);
+        new JdbcTemplate(REPLICA.getPostgresDatabase()).execute("create table if not exists " + tabela + " (" + colunas + ")");
+    }
+
+    // Recria a tabela de origem no banco informado
+    private static void marcaOrigem(DataSource dataSource, String origem) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists roteamento_teste (origem varchar(20))");
+        jdbc.execute("truncate roteamento_teste");
+        jdbc.update("insert into roteamento_teste (origem) values (?)", origem);
+    }
+
+    // Lê a origem pelo DataSource da aplicação em uma transação somente leitura ou de escrita
+    private String origem(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> jdbcTemplate.queryForObject(CONSULTA_ORIGEM, String.class));
+    }
+}